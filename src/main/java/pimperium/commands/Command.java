@@ -8,4 +8,8 @@ public interface Command {
      * Execute the command
      */
     void execute();
+    /**
+     * Revert the last execution of the command, putting every ship back at its former place
+     */
+    void undo();
 }
@@ -13,6 +13,7 @@ public class Expand implements Command, Serializable {
     private static final long serialVersionUID = 1L;
     private Player player;
     private Ship shipInvolved;
+    private transient UndoLog undoLog;
 
     public Expand(Player player) {
         this.player = player;      
@@ -32,11 +33,21 @@ public class Expand implements Command, Serializable {
      */
     public void execute() {
 
-        System.out.println(this.shipInvolved + " expanded");
-        this.player.createShip(this.shipInvolved.getPosition());
-        shipInvolved.setHasExpanded(true);
+        if (this.undoLog == null) this.undoLog = new UndoLog();
+        this.undoLog.clear();
 
-        this.player.deleteExtraShips();
+        this.player.getGame().print(this.shipInvolved + " expanded");
+        this.undoLog.createShip(this.player, this.shipInvolved.getPosition());
+        this.undoLog.setFlag(this.shipInvolved, Ship.EXPANDED, true);
 
+        this.player.deleteExtraShips(this.undoLog);
+
+    }
+
+    /**
+     * Revert the last expand move
+     */
+    public void undo() {
+        if (this.undoLog != null) this.undoLog.undo();
     }
 }
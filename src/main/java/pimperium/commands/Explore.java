@@ -3,9 +3,13 @@ package pimperium.commands;
 import java.io.Serializable;
 import java.util.List;
 
+import pimperium.utils.Pair;
+
 import pimperium.elements.Hexagon;
 import pimperium.elements.Ship;
+import pimperium.models.Board;
 import pimperium.players.Player;
+import pimperium.utils.Moves;
 
 /**
  * Command card belonging to a player that enables him to perform Explore
@@ -15,6 +19,7 @@ public class Explore implements Command, Serializable {
     private Player player;
     private List<Hexagon> targetHexagons;
     private List<Ship> shipsInvolved;
+    private transient UndoLog undoLog;
 
     public Explore(Player player) {
         this.player = player;
@@ -36,6 +41,25 @@ public class Explore implements Command, Serializable {
     	this.targetHexagons = targetHexagons;
     }
 
+    /**
+     * Set the fleet and the destinations from a packed move
+     * @param move The packed Explore move
+     * @param board The board the move was generated on
+     */
+    public void setMove(long move, Board board) {
+        Pair<List<Ship>, List<Hexagon>> decoded = Moves.decodeExplore(move, board);
+        this.shipsInvolved = decoded.getKey();
+        this.targetHexagons = decoded.getValue();
+    }
+
+    public List<Ship> getShips() {
+        return this.shipsInvolved;
+    }
+
+    public List<Hexagon> getTargets() {
+        return this.targetHexagons;
+    }
+
     /**
      * Execute the Explore move (Move each ship to the corresponding hexagon)
      */
@@ -46,11 +70,21 @@ public class Explore implements Command, Serializable {
             throw new IllegalArgumentException("The number of ships and targets must be identical.");
         }
 
+        if (this.undoLog == null) this.undoLog = new UndoLog();
+        this.undoLog.clear();
+
          // Move each ship to its destination
          for (int i=0; i<this.shipsInvolved.size(); i++) {
-        	 this.shipsInvolved.get(i).move(this.targetHexagons.get(i));
-             this.shipsInvolved.get(i).setHasExplored(true);
+        	 this.undoLog.move(this.shipsInvolved.get(i), this.targetHexagons.get(i));
+             this.undoLog.setFlag(this.shipsInvolved.get(i), Ship.EXPLORED, true);
          }
          
     }
+
+    /**
+     * Revert the last Explore move
+     */
+    public void undo() {
+        if (this.undoLog != null) this.undoLog.undo();
+    }
 }
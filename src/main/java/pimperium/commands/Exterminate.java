@@ -5,9 +5,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
+import pimperium.utils.Pair;
+
 import pimperium.elements.Hexagon;
 import pimperium.elements.Ship;
+import pimperium.models.Board;
 import pimperium.players.Player;
+import pimperium.utils.Moves;
 
 /**
  * Command card belonging to a player that enables him to perform Exterminate
@@ -18,6 +22,7 @@ public class Exterminate implements Command, Serializable {
     private Player player;
     private Hexagon target;
     private Set<Ship> shipsInvolved;
+    private transient UndoLog undoLog;
 
     public Exterminate(Player player) {
         this.player = player;
@@ -40,16 +45,37 @@ public class Exterminate implements Command, Serializable {
     	this.target = target;
     }
 
+    /**
+     * Set the fleet and the target from a packed move
+     * @param move The packed Exterminate move
+     * @param board The board the move was generated on
+     */
+    public void setMove(long move, Board board) {
+        Pair<Set<Ship>, Hexagon> decoded = Moves.decodeExterminate(move, board);
+        this.shipsInvolved = decoded.getKey();
+        this.target = decoded.getValue();
+    }
+
+    public Set<Ship> getShips() {
+        return this.shipsInvolved;
+    }
+
+    public Hexagon getTarget() {
+        return this.target;
+    }
+
     /**
      * Execute the Exterminate move (Destroy ships in attacking and defending fleet and possibly moving the remaining ships to the conquered hexagon)
      */
     public void execute() {
 
+        if (this.undoLog == null) this.undoLog = new UndoLog();
+        this.undoLog.clear();
         List<Ship> attackingFleet = new ArrayList<>(this.shipsInvolved);
         List<Ship> defendingFleet = new ArrayList<>(this.target.getShips());
 
         if (this.target.getOccupant() != null) {
-            System.out.println(
+            this.player.getGame().print(
                     attackingFleet.getFirst().getOwner().getPseudo() + " is fighting "
                     + this.target.getOccupant().getPseudo()
                     + " at " + this.target
@@ -58,22 +84,29 @@ public class Exterminate implements Command, Serializable {
 
         while (!attackingFleet.isEmpty() && !defendingFleet.isEmpty()) {
 
-            attackingFleet.getLast().destroy();
+            this.undoLog.destroy(attackingFleet.getLast());
             attackingFleet.removeLast();
 
-            defendingFleet.getLast().destroy();
+            this.undoLog.destroy(defendingFleet.getLast());
             defendingFleet.removeLast();
 
         }
 
         // If the attacker won, move all his remaining ships to the target
         if (!attackingFleet.isEmpty()) {
-            System.out.println(attackingFleet.getFirst().getOwner().getPseudo() + " took control of " + target);
+            this.player.getGame().print(attackingFleet.getFirst().getOwner().getPseudo() + " took control of " + target);
             for (Ship ship : attackingFleet) {
-                ship.move(this.target);
-                ship.setHasExterminated(true);
+                this.undoLog.move(ship, this.target);
+                this.undoLog.setFlag(ship, Ship.EXTERMINATED, true);
             }
         }
 
     }
+
+    /**
+     * Revert the last Exterminate move
+     */
+    public void undo() {
+        if (this.undoLog != null) this.undoLog.undo();
+    }
 }
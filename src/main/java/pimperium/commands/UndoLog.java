@@ -0,0 +1,141 @@
+package pimperium.commands;
+
+import java.util.Arrays;
+import java.util.List;
+
+import pimperium.elements.Hexagon;
+import pimperium.elements.Ship;
+import pimperium.players.Player;
+
+/**
+ * Record of the changes made to the ships by the execution of a command, used to revert them exactly.
+ * Each change is applied through the log, which stores just enough to put the ships back at their former place
+ * in their hexagon and in the fleet of their owner
+ */
+public class UndoLog {
+
+    private static final byte CREATE = 0;
+    private static final byte MOVE = 1;
+    private static final byte DESTROY = 2;
+    private static final byte FLAG = 3;
+
+    private byte[] kinds = new byte[16];
+    private Ship[] ships = new Ship[16];
+    /**
+     * Origin of the moved ships
+     */
+    private Hexagon[] origins = new Hexagon[16];
+    /**
+     * Former rank of the ship in its hexagon, or the changed flag
+     */
+    private int[] first = new int[16];
+    /**
+     * Former rank of the destroyed ship in the fleet of its owner, or the former value of the flag
+     */
+    private int[] second = new int[16];
+    private int size;
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Forget the recorded changes
+     */
+    public void clear() {
+        Arrays.fill(this.ships, 0, this.size, null);
+        Arrays.fill(this.origins, 0, this.size, null);
+        this.size = 0;
+    }
+
+    private void record(byte kind, Ship ship, Hexagon origin, int first, int second) {
+        if (this.size == this.kinds.length) {
+            int capacity = this.size * 2;
+            this.kinds = Arrays.copyOf(this.kinds, capacity);
+            this.ships = Arrays.copyOf(this.ships, capacity);
+            this.origins = Arrays.copyOf(this.origins, capacity);
+            this.first = Arrays.copyOf(this.first, capacity);
+            this.second = Arrays.copyOf(this.second, capacity);
+        }
+        this.kinds[this.size] = kind;
+        this.ships[this.size] = ship;
+        this.origins[this.size] = origin;
+        this.first[this.size] = first;
+        this.second[this.size] = second;
+        this.size++;
+    }
+
+    /**
+     * Create a new ship and record it
+     * @param player The owner of the new ship
+     * @param target The hexagon to place the new ship on
+     * @return The new ship
+     */
+    public Ship createShip(Player player, Hexagon target) {
+        player.createShip(target);
+        Ship ship = player.getShips().getLast();
+        this.record(CREATE, ship, null, 0, 0);
+        return ship;
+    }
+
+    /**
+     * Move a ship and record its former place
+     * @param ship The ship to move
+     * @param target The destination of the ship
+     */
+    public void move(Ship ship, Hexagon target) {
+        Hexagon origin = ship.getPosition();
+        this.record(MOVE, ship, origin, origin.getShips().indexOf(ship), 0);
+        ship.move(target);
+    }
+
+    /**
+     * Destroy a ship and record its former place
+     * @param ship The ship to destroy
+     */
+    public void destroy(Ship ship) {
+        List<Ship> fleet = ship.getOwner().getShips();
+        this.record(DESTROY, ship, null, ship.getPosition().getShips().indexOf(ship), fleet.indexOf(ship));
+        ship.destroy();
+    }
+
+    /**
+     * Change a flag of a ship and record its former value
+     * @param ship The ship
+     * @param flag The flag (Ship.EXPANDED, Ship.EXPLORED or Ship.EXTERMINATED)
+     * @param value The new value of the flag
+     */
+    public void setFlag(Ship ship, int flag, boolean value) {
+        if (ship.hasFlag(flag) != value) {
+            this.record(FLAG, ship, null, flag, value ? 0 : 1);
+            ship.setFlag(flag, value);
+        }
+    }
+
+    /**
+     * Revert the recorded changes, from the last one to the first one, then forget them
+     */
+    public void undo() {
+        for (int i = this.size - 1; i >= 0; i--) {
+            Ship ship = this.ships[i];
+            switch (this.kinds[i]) {
+                case CREATE:
+                    ship.destroy();
+                    break;
+                case MOVE:
+                    ship.move(this.origins[i], this.first[i]);
+                    break;
+                case DESTROY:
+                    ship.restore(this.second[i], this.first[i]);
+                    break;
+                case FLAG:
+                    ship.setFlag(this.first[i], this.second[i] != 0);
+                    break;
+                default:
+                    throw new IllegalStateException("Valeur innatendue : " + this.kinds[i]);
+            }
+        }
+        this.clear();
+    }
+
+}
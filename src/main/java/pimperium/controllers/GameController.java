@@ -25,12 +25,13 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.Set;
 
 import pimperium.elements.Hexagon;
 import pimperium.elements.Sector;
 import pimperium.models.Game;
+import pimperium.models.HumanInterface;
 import pimperium.players.*;
 import pimperium.utils.Colors;
 import pimperium.views.Interface;
@@ -41,7 +42,7 @@ import pimperium.views.PlayerSetupView;
 /**
  * Controller in the VCM design pattern
  */
-public class GameController extends Application {
+public class GameController extends Application implements HumanInterface {
     private transient Stage primaryStage;
     private Game game;
     private transient Interface view;
@@ -169,13 +170,14 @@ public class GameController extends Application {
             // Create a new instance of Game
             game = new Game();
             game.setController(this);
+            game.setLogSink((message, player, style) -> this.view.addLogMessage(message, player, style));
             game.addPropertyChangeListener(this::onGameChange);
     
             // Create human players
             List<Player> players = new ArrayList<>();
             List<String> chosenPseudos = new ArrayList<>(playerNames);
             List<Colors> availableColors = new ArrayList<>(Arrays.asList(Colors.values()));
-		    Collections.shuffle(availableColors);
+		    Collections.shuffle(availableColors, game.getRandom());
 
             for (String name : playerNames) {
                 Colors playerColor = availableColors.removeFirst();
@@ -205,13 +207,16 @@ public class GameController extends Application {
                         // bot = new DefensiveBot(game, botColor);
                         bot = new DefensiveBot(game, botColor);
                         break;
+                    case "MCTS":
+                        bot = new MctsBot(game, botColor);
+                        break;
                     case "Aléatoire":
                     default:
                         bot = new RandomBot(game, botColor);
                         break;
                 }
 
-                Random random = new Random();
+                SplittableRandom random = game.getRandom();
 
                 boolean validName = false;
                 String botPseudo = botNames.get(random.nextInt(botNames.size()));
@@ -447,6 +452,14 @@ public class GameController extends Application {
         return this.view;
     }
 
+    /**
+     * Show a human player the choice of its order of commands
+     * @param player The player choosing its order
+     */
+    public void showCommandSelection(Human player) {
+        this.view.showCommandSelection(player);
+    }
+
     public MediaPlayer getGamePlayer() {
         return gamePlayer;
     }
@@ -491,6 +504,7 @@ public class GameController extends Application {
 
             // Set the controller and listeners
             game.setController(this);
+            game.setLogSink((message, player, style) -> this.view.addLogMessage(message, player, style));
             game.addPropertyChangeListener(this::onGameChange);
 
             // Initialize the view and maps
@@ -4,8 +4,9 @@ import java.io.Serializable;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Set;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 
+import pimperium.models.Board;
 import pimperium.players.Player;
 
 
@@ -20,7 +21,15 @@ public class Hexagon implements Serializable {
 	private int pos_y;
 	private boolean isTriPrime = false;
 	/**
-	 * The set of direct neighbors
+	 * Index of the hexagon in the board bitmasks (-1 until the board is created)
+	 */
+	private int index = -1;
+	/**
+	 * The board kept up to date when ships enter or leave the hexagon
+	 */
+	private Board board;
+	/**
+	 * The set of direct neighbors, iterated in the order they were added so that games are reproducible
 	 */
 	private Set<Hexagon> neighbors;
 	/**
@@ -40,10 +49,25 @@ public class Hexagon implements Serializable {
 	public Hexagon(int x, int y) {
 		this.pos_x = x;
 		this.pos_y = y;
-		this.neighbors = new HashSet<>();
+		this.neighbors = new LinkedHashSet<>();
 		this.ships = new ArrayList<Ship>();
 	}
 
+	/**
+	 * Copy the position, the index and the system of the hexagon, for a forked game.
+	 * Neighbours and ships are not copied, and the copy is not linked to any board nor sector
+	 * @return The copy of the hexagon
+	 */
+	public Hexagon copy() {
+		Hexagon copy = new Hexagon(this.pos_x, this.pos_y);
+		copy.isTriPrime = this.isTriPrime;
+		copy.index = this.index;
+		if (this.system != null) {
+			copy.addSystem(new HSystem(this.system.getLevel()));
+		}
+		return copy;
+	}
+
 	/**
 	 * Place a system on the hexagon
 	 * @param system The system previously created
@@ -162,10 +186,46 @@ public class Hexagon implements Serializable {
 
 	public void addShip(Ship ship) {
 		this.ships.add(ship);
+		if (this.board != null) this.board.shipAdded(this, ship);
+	}
+
+	/**
+	 * Add a ship at a given rank among the ships of the hexagon
+	 * @param index The rank of the ship
+	 * @param ship The ship to add
+	 */
+	public void addShip(int index, Ship ship) {
+		this.ships.add(index, ship);
+		if (this.board != null) this.board.shipAdded(this, ship);
 	}
 
 	public void removeShip(Ship ship) {
-		this.ships.remove(ship);
+		if (this.ships.remove(ship) && this.board != null) this.board.shipRemoved(this, ship);
+	}
+
+	public int getIndex() {
+		return this.index;
+	}
+
+	public void setIndex(int index) {
+		this.index = index;
+	}
+
+	/**
+	 * Notify the board that a ship of the hexagon changed its state
+	 * @param ship The ship, whose flag has already changed
+	 * @param flag The flag of the ship that changed (Ship.EXPANDED, Ship.EXPLORED or Ship.EXTERMINATED)
+	 */
+	public void flagChanged(Ship ship, int flag) {
+		if (this.board != null) this.board.flagChanged(this, ship, flag);
+	}
+
+	/**
+	 * Link the hexagon to the board tracking its occupancy
+	 * @param board The board of the game
+	 */
+	public void setBoard(Board board) {
+		this.board = board;
 	}
 
 }
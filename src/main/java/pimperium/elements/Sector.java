@@ -3,10 +3,12 @@ package pimperium.elements;
 import java.io.Serializable;
 import java.util.ArrayList;
 
+import pimperium.players.Player;
+
 /**
  * Sector card constituting the game map
  */
-public abstract class Sector implements Serializable {
+public abstract class Sector implements Serializable, Cloneable {
 
 	protected static final long serialVersionUID = 1L;
 
@@ -18,11 +20,43 @@ public abstract class Sector implements Serializable {
 	 * Path of the image corresponding to the sector
 	 */
 	protected String path;
+	/**
+	 * Position of the sector in the array of sectors of the game (-1 until the board is created)
+	 */
+	protected int id = -1;
+	/**
+	 * Number of systems of the sector controlled by each player, indexed by player id and kept up to date by the board
+	 */
+	protected int[] controlledSystems;
+	/**
+	 * Sum of the levels of the systems of the sector controlled by each player, indexed by player id
+	 */
+	protected int[] controlledLevels;
+	/**
+	 * Number of systems of the sector controlled by any player
+	 */
+	protected int occupiedSystems;
 	
 	public Sector() {
 		systems = new ArrayList<HSystem>();
 	}
 
+	/**
+	 * Copy the sector for a forked game. The control of the copy is counted again by the board of the forked game
+	 * @param systems The copies of the systems of the sector, in the same order
+	 * @return The copy of the sector
+	 */
+	public Sector copy(ArrayList<HSystem> systems) {
+		try {
+			Sector copy = (Sector) super.clone();
+			copy.systems = systems;
+			copy.resetControl(this.controlledSystems == null ? 0 : this.controlledSystems.length);
+			return copy;
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError(e);
+		}
+	}
+
 	public ArrayList<HSystem> getSystems() {
 		return this.systems;
 	}
@@ -32,14 +66,67 @@ public abstract class Sector implements Serializable {
 	 * @return Whether the sector is occupied or not, as a boolean
 	 */
 	public boolean isOccupied() {
-		boolean occupied = false;
-		for (HSystem system : this.systems) {
-			if (system.getHex().getOccupant() != null) {
-				occupied = true;
-				break;
-			}
+		return this.occupiedSystems > 0;
+	}
+
+	/**
+	 * Forget the control of the systems, before the board counts it again
+	 * @param numPlayers The number of players of the game
+	 */
+	public void resetControl(int numPlayers) {
+		this.controlledSystems = new int[numPlayers];
+		this.controlledLevels = new int[numPlayers];
+		this.occupiedSystems = 0;
+	}
+
+	/**
+	 * Update the control of the sector when a player takes or leaves one of its systems
+	 * @param playerId The id of the player
+	 * @param level The level of the system
+	 * @param delta 1 if the player took the system, -1 if he left it
+	 */
+	public void updateControl(int playerId, int level, int delta) {
+		this.controlledSystems[playerId] += delta;
+		this.controlledLevels[playerId] += delta * level;
+		this.occupiedSystems += delta;
+	}
+
+	/**
+	 * Get the number of systems of the sector controlled by a player
+	 * @param player The player considered
+	 * @return The number of systems where the player has ships
+	 */
+	public int getControlledSystems(Player player) {
+		return this.controlledSystems[player.getId()];
+	}
+
+	/**
+	 * Get the sum of the levels of the systems of the sector controlled by a player
+	 * @param player The player considered
+	 * @return The sum of the levels
+	 */
+	public int getControlledLevels(Player player) {
+		return this.controlledLevels[player.getId()];
+	}
+
+	/**
+	 * Get the sum of the levels of the systems of the sector controlled by any player
+	 * @return The sum of the levels
+	 */
+	public int getOccupiedLevels() {
+		int levels = 0;
+		for (int playerLevels : this.controlledLevels) {
+			levels += playerLevels;
 		}
-		return occupied;
+		return levels;
+	}
+
+	public int getId() {
+		return this.id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
 	}
 
 	/**
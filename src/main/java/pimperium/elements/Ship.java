@@ -11,6 +11,14 @@ public class Ship implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Flags telling which actions the ship has already been concerned by this round
+     */
+    public static final int EXPANDED = 0;
+    public static final int EXPLORED = 1;
+    public static final int EXTERMINATED = 2;
+    public static final int NUM_FLAGS = 3;
+
     /**
      * The hexagon where the ship is currently situated
      */
@@ -62,6 +70,17 @@ public class Ship implements Serializable {
         this.position.addShip(this);
     }
 
+    /**
+     * Move the ship to a given rank of another hexagon, to put it back where it was before a move
+     * @param newPosition The destination of the ship
+     * @param index The rank of the ship among the ships of the destination
+     */
+    public void move(Hexagon newPosition, int index) {
+        this.position.removeShip(this);
+        this.position = newPosition;
+        this.position.addShip(index, this);
+    }
+
     /**
      * Destroy the ship by removing it from the player's fleet and from the hexagon
      */
@@ -70,6 +89,16 @@ public class Ship implements Serializable {
         position.removeShip(this);
     }
 
+    /**
+     * Put a destroyed ship back at its former place in the fleet of its owner and in its hexagon
+     * @param fleetIndex The former rank of the ship in the fleet of its owner
+     * @param positionIndex The former rank of the ship among the ships of its hexagon
+     */
+    public void restore(int fleetIndex, int positionIndex) {
+        player.addShip(fleetIndex, this);
+        position.addShip(positionIndex, this);
+    }
+
     /**
      * Whether the ship has already been expanded on this round
      * @return Whether the ship has expanded this round or not, as a boolean
@@ -94,16 +123,73 @@ public class Ship implements Serializable {
         return this.hasExterminated;
     }
 
+    /**
+     * Whether the ship has already been concerned by an action this round
+     * @param flag The action (EXPANDED, EXPLORED or EXTERMINATED)
+     * @return Whether the flag of the action is set
+     */
+    public boolean hasFlag(int flag) {
+        switch (flag) {
+            case EXPANDED:
+                return this.hasExpanded;
+            case EXPLORED:
+                return this.hasExplored;
+            case EXTERMINATED:
+                return this.hasExterminated;
+            default:
+                throw new IllegalArgumentException("Valeur innatendue : " + flag);
+        }
+    }
+
+    /**
+     * Get the flags of the actions the ship has been concerned by this round
+     * @return The mask of the flags, bit EXPANDED, EXPLORED and EXTERMINATED
+     */
+    public int getFlags() {
+        return (this.hasExpanded ? 1 << EXPANDED : 0) | (this.hasExplored ? 1 << EXPLORED : 0)
+                | (this.hasExterminated ? 1 << EXTERMINATED : 0);
+    }
+
+    /**
+     * Set the flag of an action
+     * @param flag The action (EXPANDED, EXPLORED or EXTERMINATED)
+     * @param value The new value of the flag
+     */
+    public void setFlag(int flag, boolean value) {
+        switch (flag) {
+            case EXPANDED:
+                this.setHasExpanded(value);
+                break;
+            case EXPLORED:
+                this.setHasExplored(value);
+                break;
+            case EXTERMINATED:
+                this.setHasExterminated(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Valeur innatendue : " + flag);
+        }
+    }
+
     public void setHasExpanded(boolean hasExpanded) {
-        this.hasExpanded = hasExpanded;
+        if (this.hasExpanded != hasExpanded) {
+            this.hasExpanded = hasExpanded;
+            this.position.flagChanged(this, EXPANDED);
+        }
     }
 
     public void setHasExplored(boolean hasExplored) {
-        this.hasExplored = hasExplored;
+        if (this.hasExplored != hasExplored) {
+            this.hasExplored = hasExplored;
+            this.position.flagChanged(this, EXPLORED);
+        }
     }
 
     public void setHasExterminated(boolean hasExterminated) {
-        this.hasExterminated = hasExterminated;
+        if (this.hasExterminated != hasExterminated) {
+            this.hasExterminated = hasExterminated;
+            this.position.flagChanged(this, EXTERMINATED);
+        }
     }
     
     public String toString() {
@@ -0,0 +1,266 @@
+package pimperium.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import pimperium.players.Bot;
+import pimperium.players.MctsBot;
+import pimperium.players.Player;
+
+/**
+ * Command-line runner playing many headless bot-only games in parallel and summarizing their results
+ */
+public class BatchRunner {
+
+	/**
+	 * Outcome of a single game
+	 */
+	private static final class Result {
+		/**
+		 * Final score of each seat
+		 */
+		private final int[] scores;
+		/**
+		 * Seat of the winner
+		 */
+		private final int winner;
+		/**
+		 * Number of rounds played
+		 */
+		private final int rounds;
+		/**
+		 * Seed of the game, to replay it
+		 */
+		private final long seed;
+		/**
+		 * Time taken to play the game
+		 */
+		private final long nanos;
+		/**
+		 * Number of decisions, of evaluated nodes, time spent deciding and longest decision of each seat
+		 */
+		private final long[] decisions;
+		private final long[] nodes;
+		private final long[] decisionNanos;
+		private final long[] maxDecisionNanos;
+
+		private Result(int[] scores, int winner, int rounds, long seed, long nanos,
+				long[] decisions, long[] nodes, long[] decisionNanos, long[] maxDecisionNanos) {
+			this.scores = scores;
+			this.winner = winner;
+			this.rounds = rounds;
+			this.seed = seed;
+			this.nanos = nanos;
+			this.decisions = decisions;
+			this.nodes = nodes;
+			this.decisionNanos = decisionNanos;
+			this.maxDecisionNanos = maxDecisionNanos;
+		}
+	}
+
+	private final List<String> strategies;
+	private final int threads;
+	/**
+	 * Seed of the batch, from which the seed of each game is derived
+	 */
+	private final long seed;
+
+	/**
+	 * Create a runner with a random seed
+	 *
+	 * @param strategies The strategy of the bot of each seat (length 3)
+	 * @param threads The number of worker threads, 0 to play each game on its own virtual thread
+	 */
+	public BatchRunner(List<String> strategies, int threads) {
+		this(strategies, threads, new SplittableRandom().nextLong());
+	}
+
+	/**
+	 * Create a runner
+	 *
+	 * @param strategies The strategy of the bot of each seat (length 3)
+	 * @param threads The number of worker threads, 0 to play each game on its own virtual thread
+	 * @param seed The seed of the batch: the same seed plays the same games, whatever the number of threads
+	 */
+	public BatchRunner(List<String> strategies, int threads, long seed) {
+		if (strategies.size() != Game.NB_PLAYERS) {
+			throw new IllegalArgumentException("A game needs " + Game.NB_PLAYERS + " players.");
+		}
+		this.strategies = strategies;
+		this.threads = threads;
+		this.seed = seed;
+	}
+
+	/**
+	 * Get the seed of a game of the batch
+	 *
+	 * @param i The number of the game in the batch
+	 * @return The seed of the game
+	 */
+	private long gameSeed(int i) {
+		return Zobrist.mix(this.seed + i);
+	}
+
+	/**
+	 * Play a single game, with the bots seated in the order of the strategies
+	 *
+	 * @param seed The seed of the game
+	 * @return The outcome of the game
+	 */
+	private Result playGame(long seed) {
+		long start = System.nanoTime();
+		Game game = GameEngine.createGame(this.strategies, null, seed, true);
+		// The batch already plays a game per core, so each search runs a single worker on the thread of its game
+		for (Player player : game.getPlayers()) {
+			if (player instanceof MctsBot mcts) mcts.setThreads(1);
+		}
+		Player winner = GameEngine.play(game);
+		int[] scores = new int[Game.NB_PLAYERS];
+		long[] decisions = new long[Game.NB_PLAYERS];
+		long[] nodes = new long[Game.NB_PLAYERS];
+		long[] decisionNanos = new long[Game.NB_PLAYERS];
+		long[] maxDecisionNanos = new long[Game.NB_PLAYERS];
+		for (Player player : game.getPlayers()) {
+			int id = player.getId();
+			scores[id] = player.getScore();
+			if (player instanceof Bot bot) {
+				decisions[id] = bot.getDecisions();
+				nodes[id] = bot.getNodes();
+				decisionNanos[id] = bot.getDecisionNanos();
+				maxDecisionNanos[id] = bot.getMaxDecisionNanos();
+			}
+		}
+		return new Result(scores, winner.getId(), game.getRound(), seed, System.nanoTime() - start,
+				decisions, nodes, decisionNanos, maxDecisionNanos);
+	}
+
+	/**
+	 * Play the games and print their statistics. The games are silent, only the statistics are printed
+	 *
+	 * @param numGames The number of games to play
+	 */
+	public void run(int numGames) {
+
+		List<Result> results = new ArrayList<>(numGames);
+		int failures = 0;
+		long start = System.nanoTime();
+
+		try (ExecutorService executor = this.threads > 0
+				? Executors.newFixedThreadPool(this.threads)
+				: Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<Result>> futures = new ArrayList<>(numGames);
+			for (int i = 0; i < numGames; i++) {
+				long gameSeed = this.gameSeed(i);
+				futures.add(executor.submit(() -> this.playGame(gameSeed)));
+			}
+			for (int i = 0; i < numGames; i++) {
+				try {
+					results.add(futures.get(i).get());
+				} catch (ExecutionException e) {
+					failures++;
+					System.err.println("Échec de la partie de graine " + this.gameSeed(i));
+					e.getCause().printStackTrace();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+		this.printStatistics(results, failures, seconds);
+	}
+
+	/**
+	 * Print the win rates, score distributions and game lengths of a batch of games
+	 *
+	 * @param results The outcomes of the games
+	 * @param failures The number of games that crashed
+	 * @param seconds The time taken to play the batch
+	 */
+	private void printStatistics(List<Result> results, int failures, double seconds) {
+
+		int numGames = results.size();
+		System.out.printf("%d parties jouées en %.2f s (%.1f parties/s), %d échecs, graine %d%n",
+				numGames, seconds, numGames / seconds, failures, this.seed);
+		if (numGames == 0) return;
+
+		Result slowest = results.getFirst();
+		for (Result result : results) {
+			if (result.nanos > slowest.nanos) slowest = result;
+		}
+		System.out.printf("Partie la plus lente : %.1f ms, graine %d%n", slowest.nanos / 1e6, slowest.seed);
+
+		for (int seat = 0; seat < Game.NB_PLAYERS; seat++) {
+			int wins = 0;
+			int[] scores = new int[numGames];
+			for (int i = 0; i < numGames; i++) {
+				Result result = results.get(i);
+				if (result.winner == seat) wins++;
+				scores[i] = result.scores[seat];
+			}
+			System.out.printf("Siège %d (%s) : victoires %.1f %%, score %s%n",
+					seat + 1, this.strategies.get(seat), 100.0 * wins / numGames, distribution(scores));
+		}
+
+		// Cost of the decisions, which the budgets of the bots keep bounded
+		for (int seat = 0; seat < Game.NB_PLAYERS; seat++) {
+			int k = seat;
+			long decisions = results.stream().mapToLong(result -> result.decisions[k]).sum();
+			if (decisions == 0) continue;
+			long nodes = results.stream().mapToLong(result -> result.nodes[k]).sum();
+			long decisionNanos = results.stream().mapToLong(result -> result.decisionNanos[k]).sum();
+			long maxDecisionNanos = results.stream().mapToLong(result -> result.maxDecisionNanos[k]).max().orElse(0);
+			System.out.printf("Décisions du siège %d : %d, %d nœuds (%.0f nœuds/s), %.2f ms en moyenne, %.1f ms au plus%n",
+					seat + 1, decisions, nodes, nodes * 1e9 / Math.max(1, decisionNanos),
+					decisionNanos / 1e6 / decisions, maxDecisionNanos / 1e6);
+		}
+
+		int[] rounds = new int[numGames];
+		for (int i = 0; i < numGames; i++) {
+			rounds[i] = results.get(i).rounds;
+		}
+		System.out.println("Durée (manches) : " + distribution(rounds));
+	}
+
+	/**
+	 * Summarize a distribution of values
+	 *
+	 * @param values The values (sorted in place)
+	 * @return The mean, standard deviation, min, quartiles and max of the values
+	 */
+	private static String distribution(int[] values) {
+		Arrays.sort(values);
+		double mean = Arrays.stream(values).average().orElse(0);
+		double variance = Arrays.stream(values).mapToDouble(v -> (v - mean) * (v - mean)).average().orElse(0);
+		int n = values.length;
+		return String.format("moyenne %.2f, écart-type %.2f, min %d, q1 %d, médiane %d, q3 %d, max %d",
+				mean, Math.sqrt(variance), values[0], values[n / 4], values[n / 2], values[3 * n / 4], values[n - 1]);
+	}
+
+	/**
+	 * Play a batch of games
+	 *
+	 * @param args The number of games, the strategies of the 3 bots ("offensive", "defensive", "mcts" or "random",
+	 *             optionally followed by a difficulty tier like "mcts:easy"),
+	 *             then optionally the number of worker threads (virtual threads by default) and the seed of the batch
+	 */
+	public static void main(String[] args) {
+		if (args.length < 4) {
+			System.out.println("Usage : BatchRunner <parties> <stratégie 1> <stratégie 2> <stratégie 3> [threads] [graine]  (stratégies : offensive, defensive, mcts, random, suivies de :facile, :normal, :difficile ou :expert)");
+			return;
+		}
+		int numGames = Integer.parseInt(args[0]);
+		List<String> strategies = Arrays.asList(args[1], args[2], args[3]);
+		int threads = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+		long seed = args.length > 5 ? Long.parseLong(args[5]) : new SplittableRandom().nextLong();
+		new BatchRunner(strategies, threads, seed).run(numGames);
+	}
+
+}
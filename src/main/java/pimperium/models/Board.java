@@ -0,0 +1,459 @@
+package pimperium.models;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import pimperium.elements.Hexagon;
+import pimperium.elements.Sector;
+import pimperium.elements.Ship;
+import pimperium.players.Player;
+
+/**
+ * Bitboard layer kept next to the hexagons of the map. Each distinct hexagon owns one bit of a long,
+ * so that move generation works on masks instead of walking the object graph
+ */
+public final class Board implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Distinct hexagons of the map, indexed by their bit (Tri-Prime is stored only once)
+	 */
+	private Hexagon[] hexs;
+	/**
+	 * Static layout of the map, shared with every board built on the same map
+	 */
+	private Topology topology;
+	/**
+	 * Sectors of the map, whose control is updated with the occupancy
+	 */
+	private Sector[] sectors;
+	/**
+	 * Mask of the hexagons occupied by each player, indexed by player id
+	 */
+	private long[] occupiedMasks;
+	/**
+	 * Mask of all the occupied hexagons
+	 */
+	private long occupiedMask;
+	/**
+	 * Mask of the hexagons whose ships changed since the last poll, used to invalidate the move cache
+	 */
+	private long changedMask;
+	/**
+	 * Number of ships on each hexagon
+	 */
+	private int[] shipCounts;
+	/**
+	 * Mask of the hexagons holding more ships than they can sustain, the only ones sustaining visits
+	 */
+	private long overfullMask;
+	/**
+	 * Total number of ships exceeding the capacity of their hexagon
+	 */
+	private int excessShips;
+	/**
+	 * Number of combinations of the flags of a ship
+	 */
+	private static final int NUM_FLAG_MASKS = 1 << Ship.NUM_FLAGS;
+
+	/**
+	 * Number of ships of each hexagon having each combination of flags, indexed by hexagon * NUM_FLAG_MASKS + flags
+	 */
+	private int[] flagCounts;
+	/**
+	 * Zobrist hash of the fleet of each hexagon
+	 */
+	private long[] hexHashes;
+	/**
+	 * Zobrist hash of the fleets of the whole map, the xor of the hashes of the hexagons
+	 */
+	private long hash;
+
+	/**
+	 * Index the distinct hexagons of the map and precompute the static masks
+	 * @param map The map of the game, once neighbours and Tri-Prime have been created
+	 * @param sectors The 9 sectors of the map
+	 */
+	public Board(Hexagon[][] map, Sector[] sectors) {
+
+		// Index the distinct hexagons from left to right, top to bottom
+		List<Hexagon> distinct = new ArrayList<>();
+		for (Hexagon[] row : map) {
+			for (Hexagon hex : row) {
+				if (hex != null && !distinct.contains(hex)) {
+					distinct.add(hex);
+				}
+			}
+		}
+		if (distinct.size() > Long.SIZE) {
+			throw new IllegalStateException("The map has too many hexagons to fit in a bitboard.");
+		}
+		this.hexs = distinct.toArray(new Hexagon[0]);
+		for (int i = 0; i < this.hexs.length; i++) {
+			this.hexs[i].setIndex(i);
+		}
+
+		this.topology = new Topology(this.hexs, sectors);
+		this.link(sectors);
+	}
+
+	/**
+	 * Build the board of a copy of a map, sharing the layout of the original map
+	 * @param hexs The distinct hexagons of the copy, each at the position of its index
+	 * @param topology The layout of the original map
+	 * @param sectors The 9 sectors of the copy
+	 */
+	public Board(Hexagon[] hexs, Topology topology, Sector[] sectors) {
+		if (hexs.length != topology.size()) {
+			throw new IllegalArgumentException("The hexagons don't match the layout of the map.");
+		}
+		this.hexs = hexs;
+		this.topology = topology;
+		this.link(sectors);
+	}
+
+	/**
+	 * Link the hexagons and the sectors to the board, and count the occupancy of the map
+	 * @param sectors The 9 sectors of the map
+	 */
+	private void link(Sector[] sectors) {
+		this.sectors = sectors;
+		for (int s = 0; s < sectors.length; s++) {
+			sectors[s].setId(s);
+			sectors[s].resetControl(Game.NB_PLAYERS);
+		}
+
+		this.occupiedMasks = new long[Game.NB_PLAYERS];
+		for (Hexagon hex : this.hexs) {
+			hex.setBoard(this);
+		}
+		this.rehash();
+	}
+
+	/**
+	 * Count again the ships of every hexagon and compute the hash of the map from scratch
+	 */
+	public void rehash() {
+		this.shipCounts = new int[this.hexs.length];
+		this.overfullMask = 0;
+		this.excessShips = 0;
+		this.flagCounts = new int[this.hexs.length * NUM_FLAG_MASKS];
+		this.hexHashes = new long[this.hexs.length];
+		this.hash = 0;
+		for (Hexagon hex : this.hexs) {
+			this.update(hex);
+		}
+	}
+
+	/**
+	 * Get the mask of a single hexagon
+	 * @param index The index of the hexagon
+	 * @return The mask with only the bit of the hexagon set
+	 */
+	public static long bit(int index) {
+		return 1L << index;
+	}
+
+	/**
+	 * Count again the ships of a hexagon and update the occupancy masks
+	 * @param hex The hexagon whose ships changed
+	 */
+	public void update(Hexagon hex) {
+		int index = hex.getIndex();
+		this.setShipCount(index, hex.getShips().size());
+		Arrays.fill(this.flagCounts, index * NUM_FLAG_MASKS, (index + 1) * NUM_FLAG_MASKS, 0);
+		for (Ship ship : hex.getShips()) {
+			this.flagCounts[index * NUM_FLAG_MASKS + ship.getFlags()]++;
+		}
+		this.refresh(hex);
+	}
+
+	/**
+	 * Update the counters of a hexagon after a ship entered it
+	 * @param hex The hexagon
+	 * @param ship The ship, already added to the hexagon
+	 */
+	public void shipAdded(Hexagon hex, Ship ship) {
+		this.countShip(hex.getIndex(), ship, 1);
+		this.refresh(hex);
+	}
+
+	/**
+	 * Update the counters of a hexagon after a ship left it
+	 * @param hex The hexagon
+	 * @param ship The ship, already removed from the hexagon
+	 */
+	public void shipRemoved(Hexagon hex, Ship ship) {
+		this.countShip(hex.getIndex(), ship, -1);
+		this.refresh(hex);
+	}
+
+	private void countShip(int index, Ship ship, int delta) {
+		this.setShipCount(index, this.shipCounts[index] + delta);
+		this.flagCounts[index * NUM_FLAG_MASKS + ship.getFlags()] += delta;
+	}
+
+	/**
+	 * Change the number of ships of a hexagon and update the overfull hexagons
+	 * @param index The index of the hexagon
+	 * @param count The new number of ships
+	 */
+	private void setShipCount(int index, int count) {
+		int capacity = this.topology.getCapacity(index);
+		this.excessShips += Math.max(0, count - capacity) - Math.max(0, this.shipCounts[index] - capacity);
+		this.shipCounts[index] = count;
+		if (count > capacity) {
+			this.overfullMask |= bit(index);
+		} else {
+			this.overfullMask &= ~bit(index);
+		}
+	}
+
+	/**
+	 * Record that a flag of a ship changed without the ship entering or leaving its hexagon
+	 * @param hex The hexagon of the ship
+	 * @param ship The ship, whose flag has already changed
+	 * @param flag The flag that changed (Ship.EXPANDED, Ship.EXPLORED or Ship.EXTERMINATED)
+	 */
+	public void flagChanged(Hexagon hex, Ship ship, int flag) {
+		int index = hex.getIndex();
+		int flags = ship.getFlags();
+		this.flagCounts[index * NUM_FLAG_MASKS + (flags ^ 1 << flag)]--;
+		this.flagCounts[index * NUM_FLAG_MASKS + flags]++;
+		this.changedMask |= bit(index);
+		this.rehashHex(index, this.occupantId(index));
+	}
+
+	/**
+	 * Update the occupancy masks, the control of the sector and the hash after the fleet of a hexagon changed
+	 * @param hex The hexagon whose ships changed
+	 */
+	private void refresh(Hexagon hex) {
+		long bit = bit(hex.getIndex());
+		int previousId = this.occupantId(hex.getIndex());
+		for (int p = 0; p < this.occupiedMasks.length; p++) {
+			this.occupiedMasks[p] &= ~bit;
+		}
+		this.occupiedMask &= ~bit;
+
+		Player occupant = hex.getOccupant();
+		int occupantId = occupant == null ? -1 : occupant.getId();
+		if (occupant != null) {
+			this.occupiedMasks[occupantId] |= bit;
+			this.occupiedMask |= bit;
+		}
+		this.changedMask |= bit;
+
+		// Update the control of the sector when the system changes hands
+		int sectorId = this.topology.getSectorId(hex.getIndex());
+		if (sectorId >= 0 && previousId != occupantId) {
+			if (previousId >= 0) this.sectors[sectorId].updateControl(previousId, hex.getSystemLevel(), -1);
+			if (occupantId >= 0) this.sectors[sectorId].updateControl(occupantId, hex.getSystemLevel(), 1);
+		}
+
+		this.rehashHex(hex.getIndex(), occupantId);
+	}
+
+	/**
+	 * Get the player occupying a hexagon, according to the masks
+	 * @param index The index of the hexagon
+	 * @return The id of the occupant, -1 if the hexagon is empty
+	 */
+	private int occupantId(int index) {
+		long bit = bit(index);
+		for (int p = 0; p < this.occupiedMasks.length; p++) {
+			if ((this.occupiedMasks[p] & bit) != 0) return p;
+		}
+		return -1;
+	}
+
+	/**
+	 * Replace the hash of a hexagon in the hash of the map, from its counters
+	 * @param index The index of the hexagon
+	 * @param occupantId The id of the occupant of the hexagon
+	 */
+	private void rehashHex(int index, int occupantId) {
+		long hexHash = Zobrist.hex(index, occupantId, this.shipCounts[index]);
+		// The ships without flag are counted by the number of ships
+		for (int flags = 1; flags < NUM_FLAG_MASKS; flags++) {
+			hexHash ^= Zobrist.flags(index, flags, this.flagCounts[index * NUM_FLAG_MASKS + flags]);
+		}
+		this.hash ^= this.hexHashes[index] ^ hexHash;
+		this.hexHashes[index] = hexHash;
+	}
+
+	/**
+	 * Get the Zobrist hash of the fleets of the map: the owner and the number of ships of each hexagon,
+	 * and how many of them have each combination of flags. Ships of a hexagon with the same flags are
+	 * interchangeable, so their order is not hashed
+	 * @return The hash of the map
+	 */
+	public long getHash() {
+		return this.hash;
+	}
+
+	/**
+	 * Get the hexagons whose ships changed since the last call, and reset the mask
+	 * @return The mask of the changed hexagons
+	 */
+	public long pollChangedMask() {
+		long changed = this.changedMask;
+		this.changedMask = 0;
+		return changed;
+	}
+
+	/**
+	 * Get the number of distinct hexagons
+	 * @return The number of hexagons indexed in the board
+	 */
+	public int size() {
+		return this.hexs.length;
+	}
+
+	public Hexagon getHex(int index) {
+		return this.hexs[index];
+	}
+
+	/**
+	 * Whether a hexagon is one of the hexagons indexed by the board
+	 * @param hex The hexagon considered
+	 * @return Whether the hexagon belongs to the map of the board
+	 */
+	public boolean contains(Hexagon hex) {
+		return hex != null && hex.getIndex() >= 0 && hex.getIndex() < this.hexs.length && this.hexs[hex.getIndex()] == hex;
+	}
+
+	public Topology getTopology() {
+		return this.topology;
+	}
+
+	public long getNeighbourMask(int index) {
+		return this.topology.getNeighbourMask(index);
+	}
+
+	/**
+	 * Get the hexagons holding a system of a given level
+	 * @param level The level of the system (0 for the hexagons without system)
+	 * @return The mask of the hexagons
+	 */
+	public long getLevelMask(int level) {
+		return this.topology.getLevelMask(level);
+	}
+
+	public long getSystemMask() {
+		return this.topology.getSystemMask();
+	}
+
+	/**
+	 * Get the number of ships of a hexagon
+	 * @param index The index of the hexagon
+	 * @return The number of ships
+	 */
+	public int getShipCount(int index) {
+		return this.shipCounts[index];
+	}
+
+	public int getCapacity(int index) {
+		return this.topology.getCapacity(index);
+	}
+
+	/**
+	 * Get the hexagons holding more ships than they can sustain
+	 * @return The mask of the overfull hexagons
+	 */
+	public long getOverfullMask() {
+		return this.overfullMask;
+	}
+
+	/**
+	 * Get the number of ships a hexagon will lose when sustaining
+	 * @param index The index of the hexagon
+	 * @return The number of ships above the capacity of the hexagon, 0 if it isn't overfull
+	 */
+	public int getExcess(int index) {
+		return Math.max(0, this.shipCounts[index] - this.topology.getCapacity(index));
+	}
+
+	/**
+	 * Get the number of ships the whole map will lose when sustaining
+	 * @return The total number of ships above the capacity of their hexagon
+	 */
+	public int getExcessShips() {
+		return this.excessShips;
+	}
+
+	/**
+	 * Get the number of ships a hexagon would lose when sustaining if more ships ended their move on it
+	 * @param index The index of the hexagon
+	 * @param shipsGoing The number of ships added to the hexagon
+	 * @return The number of ships that would be above the capacity of the hexagon
+	 */
+	public int getOverload(int index, int shipsGoing) {
+		return Math.max(0, this.shipCounts[index] + shipsGoing - this.topology.getCapacity(index));
+	}
+
+	/**
+	 * Whether adding ships to a hexagon would make it overfull
+	 * @param index The index of the hexagon
+	 * @param shipsGoing The number of ships added to the hexagon
+	 * @return Whether the hexagon would hold more ships than it can sustain
+	 */
+	public boolean wouldOverfill(int index, int shipsGoing) {
+		return this.shipCounts[index] + shipsGoing > this.topology.getCapacity(index);
+	}
+
+	public long getTriPrimeMask() {
+		return this.topology.getTriPrimeMask();
+	}
+
+	public long getSectorMask(int sectorId) {
+		return this.topology.getSectorMask(sectorId);
+	}
+
+	public int getNumSectors() {
+		return this.topology.getNumSectors();
+	}
+
+	/**
+	 * Get the sector holding the system of a hexagon
+	 * @param hex The hexagon considered
+	 * @return The sector, or null if the hexagon has no system linked to a sector
+	 */
+	public Sector getSector(Hexagon hex) {
+		if (!this.contains(hex)) {
+			return null;
+		}
+		int sectorId = this.topology.getSectorId(hex.getIndex());
+		return sectorId < 0 ? null : this.sectors[sectorId];
+	}
+
+	/**
+	 * Get the hexagons occupied by a player
+	 * @param player The player considered
+	 * @return The mask of the hexagons where the player has ships
+	 */
+	public long getOccupiedMask(Player player) {
+		return this.occupiedMasks[player.getId()];
+	}
+
+	/**
+	 * Get the hexagons occupied by any player
+	 * @return The mask of all the hexagons containing ships
+	 */
+	public long getOccupiedMask() {
+		return this.occupiedMask;
+	}
+
+	/**
+	 * Get the hexagons occupied by the opponents of a player
+	 * @param player The player considered
+	 * @return The mask of the hexagons containing ships of another player
+	 */
+	public long getEnemyMask(Player player) {
+		return this.occupiedMask & ~this.occupiedMasks[player.getId()];
+	}
+
+}
@@ -0,0 +1,298 @@
+package pimperium.models;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+import pimperium.elements.Hexagon;
+import pimperium.elements.Ship;
+import pimperium.players.Player;
+
+/**
+ * Compact value of the dynamic state of a game, packed in a single byte array of a few hundred bytes.
+ * Ships are not objects here: each hexagon stores its number of ships then one byte per ship holding the id of
+ * its owner and its flags, and each fleet stores the hexagon and the rank of its ships.
+ * The live game keeps its Hexagon and Ship objects, this form is meant to be stored by the thousands (snapshots,
+ * transposition tables, archives of positions) and compared cheaply.
+ * <p>
+ * Layout of the bytes: round, round step, game ended, play order (ids), order of commands of each player
+ * (-1 if not chosen), order of the players for each round step (-1 before the first round), efficiencies
+ * (0 before the first round), scores (2 bytes each), number of ships of each hexagon, ships of each hexagon,
+ * then for each player the size of its fleet followed by the hexagon and the rank of each ship
+ */
+public final class CoreState implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Shift of the id of the owner in the byte of a ship, above the bits of its flags
+	 */
+	private static final int OWNER_SHIFT = Ship.NUM_FLAGS;
+
+	private static final int ROUND = 0;
+	private static final int ROUND_STEP = 1;
+	private static final int GAME_ENDED = 2;
+	private static final int PLAYER_ORDER = 3;
+	private static final int ORDER_COMMANDS = PLAYER_ORDER + Game.NB_PLAYERS;
+	private static final int ORDER_PLAYERS = ORDER_COMMANDS + Game.NB_PLAYERS;
+	private static final int EFFICIENCIES = ORDER_PLAYERS + 3 * Game.NB_PLAYERS;
+	private static final int SCORES = EFFICIENCIES + 3 * Game.NB_PLAYERS;
+	private static final int SHIP_COUNTS = SCORES + 2 * Game.NB_PLAYERS;
+
+	private final byte[] data;
+	private final int numHexes;
+	/**
+	 * Zobrist hash of the game the state was taken from
+	 */
+	private final long hash;
+
+	/**
+	 * Position of the first ship of each hexagon in the data, then of the fleet of each player (computed when needed)
+	 */
+	private transient int[] offsets;
+
+	/**
+	 * Pack the state of a game
+	 * @param game The game, once its board has been created
+	 */
+	CoreState(Game game) {
+
+		Board board = game.getBoard();
+		Player[] players = game.getPlayers();
+		this.numHexes = board.size();
+		this.hash = game.getHash();
+
+		int numShips = 0;
+		for (int i = 0; i < this.numHexes; i++) {
+			numShips += board.getHex(i).getShips().size();
+		}
+		int fleets = 0;
+		for (Player player : players) {
+			fleets += 1 + 2 * player.getShips().size();
+		}
+		byte[] data = new byte[SHIP_COUNTS + this.numHexes + numShips + fleets];
+
+		data[ROUND] = (byte) game.getRound();
+		data[ROUND_STEP] = (byte) game.getRoundStep();
+		data[GAME_ENDED] = (byte) (game.isGameEnded() ? 1 : 0);
+		for (int k = 0; k < players.length; k++) {
+			Player player = players[k];
+			int id = player.getId();
+			data[PLAYER_ORDER + k] = (byte) id;
+			data[ORDER_COMMANDS + id] = (byte) encodeOrder(player.getOrderCommands());
+			data[SCORES + 2 * id] = (byte) (player.getScore() >> 8);
+			data[SCORES + 2 * id + 1] = (byte) player.getScore();
+		}
+
+		Player[][] orderPlayers = game.getOrderPlayers();
+		Integer[][] efficiencies = game.getEfficiencies();
+		for (int step = 0; step < 3; step++) {
+			for (int j = 0; j < Game.NB_PLAYERS; j++) {
+				data[ORDER_PLAYERS + step * Game.NB_PLAYERS + j] = (byte) (orderPlayers == null ? -1 : orderPlayers[step][j].getId());
+				data[EFFICIENCIES + step * Game.NB_PLAYERS + j] = (byte) (efficiencies == null ? 0 : efficiencies[step][j]);
+			}
+		}
+
+		int pos = SHIP_COUNTS + this.numHexes;
+		for (int i = 0; i < this.numHexes; i++) {
+			List<Ship> ships = board.getHex(i).getShips();
+			data[SHIP_COUNTS + i] = (byte) ships.size();
+			for (Ship ship : ships) {
+				data[pos++] = (byte) encodeShip(ship);
+			}
+		}
+
+		for (int id = 0; id < players.length; id++) {
+			List<Ship> fleet = playerById(players, id).getShips();
+			data[pos++] = (byte) fleet.size();
+			for (Ship ship : fleet) {
+				Hexagon position = ship.getPosition();
+				data[pos++] = (byte) position.getIndex();
+				data[pos++] = (byte) position.getShips().indexOf(ship);
+			}
+		}
+
+		this.data = data;
+		this.offsets = this.offsets();
+	}
+
+	private static Player playerById(Player[] players, int id) {
+		for (Player player : players) {
+			if (player.getId() == id) return player;
+		}
+		throw new IllegalArgumentException("Aucun joueur d'id " + id);
+	}
+
+	private static int encodeOrder(int[] orderCommands) {
+		if (orderCommands == null) return -1;
+		return orderCommands[0] * 9 + orderCommands[1] * 3 + orderCommands[2];
+	}
+
+	private static int encodeShip(Ship ship) {
+		int code = ship.getOwner().getId() << OWNER_SHIFT;
+		for (int flag = 0; flag < Ship.NUM_FLAGS; flag++) {
+			if (ship.hasFlag(flag)) code |= 1 << flag;
+		}
+		return code;
+	}
+
+	private int[] offsets() {
+		if (this.offsets == null) {
+			int[] offsets = new int[this.numHexes + Game.NB_PLAYERS];
+			int pos = SHIP_COUNTS + this.numHexes;
+			for (int i = 0; i < this.numHexes; i++) {
+				offsets[i] = pos;
+				pos += this.data[SHIP_COUNTS + i];
+			}
+			for (int id = 0; id < Game.NB_PLAYERS; id++) {
+				offsets[this.numHexes + id] = pos;
+				pos += 1 + 2 * this.data[pos];
+			}
+			this.offsets = offsets;
+		}
+		return this.offsets;
+	}
+
+	public int getRound() {
+		return this.data[ROUND];
+	}
+
+	public int getRoundStep() {
+		return this.data[ROUND_STEP];
+	}
+
+	public boolean isGameEnded() {
+		return this.data[GAME_ENDED] != 0;
+	}
+
+	/**
+	 * Get the id of the player playing at a given position of the play order
+	 * @param k The position in the play order
+	 * @return The id of the player
+	 */
+	public int getPlayerOrder(int k) {
+		return this.data[PLAYER_ORDER + k];
+	}
+
+	/**
+	 * Get the order of commands of a player
+	 * @param playerId The id of the player
+	 * @return A new length-3 array, null if the order hasn't been chosen
+	 */
+	public int[] getOrderCommands(int playerId) {
+		int code = this.data[ORDER_COMMANDS + playerId];
+		if (code < 0) return null;
+		return new int[]{code / 9, code / 3 % 3, code % 3};
+	}
+
+	/**
+	 * Whether the order of the players for each round step has been computed
+	 * @return Whether the play order of the round is stored
+	 */
+	public boolean hasRoundOrder() {
+		return this.data[ORDER_PLAYERS] >= 0;
+	}
+
+	/**
+	 * Get the id of the jth player to act during a round step
+	 */
+	public int getOrderPlayer(int step, int j) {
+		return this.data[ORDER_PLAYERS + step * Game.NB_PLAYERS + j];
+	}
+
+	/**
+	 * Get the efficiency of the action of the jth player to act during a round step
+	 */
+	public int getEfficiency(int step, int j) {
+		return this.data[EFFICIENCIES + step * Game.NB_PLAYERS + j];
+	}
+
+	public int getScore(int playerId) {
+		return (short) (this.data[SCORES + 2 * playerId] << 8 | this.data[SCORES + 2 * playerId + 1] & 0xFF);
+	}
+
+	public int getNumHexes() {
+		return this.numHexes;
+	}
+
+	/**
+	 * Get the number of ships of a hexagon
+	 * @param index The index of the hexagon
+	 */
+	public int getShipCount(int index) {
+		return this.data[SHIP_COUNTS + index];
+	}
+
+	/**
+	 * Get the occupant of a hexagon
+	 * @param index The index of the hexagon
+	 * @return The id of the owner of its first ship, -1 if the hexagon is empty
+	 */
+	public int getOccupant(int index) {
+		return this.getShipCount(index) == 0 ? -1 : this.getShipOwner(index, 0);
+	}
+
+	/**
+	 * Get the owner of a ship of a hexagon
+	 * @param index The index of the hexagon
+	 * @param rank The rank of the ship among the ships of the hexagon
+	 */
+	public int getShipOwner(int index, int rank) {
+		return this.data[this.offsets()[index] + rank] >>> OWNER_SHIFT;
+	}
+
+	/**
+	 * Whether a flag of a ship of a hexagon is set
+	 * @param index The index of the hexagon
+	 * @param rank The rank of the ship among the ships of the hexagon
+	 * @param flag The flag (Ship.EXPANDED, Ship.EXPLORED or Ship.EXTERMINATED)
+	 */
+	public boolean hasFlag(int index, int rank, int flag) {
+		return (this.data[this.offsets()[index] + rank] & 1 << flag) != 0;
+	}
+
+	public int getFleetSize(int playerId) {
+		return this.data[this.offsets()[this.numHexes + playerId]];
+	}
+
+	/**
+	 * Get the hexagon of the kth ship of the fleet of a player
+	 */
+	public int getFleetHex(int playerId, int k) {
+		return this.data[this.offsets()[this.numHexes + playerId] + 1 + 2 * k];
+	}
+
+	/**
+	 * Get the rank of the kth ship of the fleet of a player among the ships of its hexagon
+	 */
+	public int getFleetRank(int playerId, int k) {
+		return this.data[this.offsets()[this.numHexes + playerId] + 2 + 2 * k];
+	}
+
+	/**
+	 * Get the Zobrist hash of the game the state was taken from
+	 * @return The hash
+	 */
+	public long getHash() {
+		return this.hash;
+	}
+
+	/**
+	 * Get the size of the packed state
+	 * @return The number of bytes of the state
+	 */
+	public int size() {
+		return this.data.length;
+	}
+
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof CoreState other)) return false;
+		return this.hash == other.hash && Arrays.equals(this.data, other.data);
+	}
+
+	public int hashCode() {
+		return Long.hashCode(this.hash);
+	}
+
+}
@@ -0,0 +1,82 @@
+package pimperium.models;
+
+import java.util.Arrays;
+
+/**
+ * Distance from every hexagon to the nearest of a set of source hexagons, computed by a single breadth-first search
+ * from all the sources at once. The field is kept until the sources change, so all the moves scored during a decision
+ * read the same array
+ */
+public final class DistanceField {
+
+	private final Topology topology;
+	/**
+	 * Distance of each hexagon to the nearest source, diameter + 1 if no source can be reached
+	 */
+	private final int[] distances;
+	/**
+	 * Mask of the sources of the current field
+	 */
+	private long sources;
+	private boolean computed;
+
+	/**
+	 * Create an empty field over the layout of a map
+	 * @param topology The layout of the map
+	 */
+	public DistanceField(Topology topology) {
+		this.topology = topology;
+		this.distances = new int[topology.size()];
+	}
+
+	/**
+	 * Whether the field was created for a given layout
+	 * @param topology The layout of the map
+	 * @return Whether the distances are indexed by the hexagons of this layout
+	 */
+	public boolean isFor(Topology topology) {
+		return this.topology == topology;
+	}
+
+	/**
+	 * Compute the field for a set of sources, unless it's already computed for the same sources
+	 * @param sources The mask of the source hexagons
+	 */
+	public void update(long sources) {
+
+		if (this.computed && this.sources == sources) return;
+		this.sources = sources;
+		this.computed = true;
+
+		// Hexagons left unreached, in particular all of them without any source, are farther than any hex
+		Arrays.fill(this.distances, this.topology.getDiameter() + 1);
+
+		// Breadth-first search from all the sources, one ring at a time
+		long visited = sources;
+		long ring = sources;
+		for (int d = 0; ring != 0; d++) {
+			long next = 0;
+			for (long mask = ring; mask != 0; mask &= mask - 1) {
+				int hex = Long.numberOfTrailingZeros(mask);
+				this.distances[hex] = d;
+				next |= this.topology.getNeighbourMask(hex);
+			}
+			ring = next & ~visited;
+			visited |= ring;
+		}
+	}
+
+	/**
+	 * Get the distance of a hexagon to the nearest source
+	 * @param index The index of the hexagon
+	 * @return The number of steps, diameter + 1 if no source can be reached
+	 */
+	public int get(int index) {
+		return this.distances[index];
+	}
+
+	public long getSources() {
+		return this.sources;
+	}
+
+}
@@ -8,11 +8,13 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.BiFunction;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 
-import javafx.util.Pair;
+import pimperium.utils.Pair;
 
-import pimperium.controllers.GameController;
 import pimperium.elements.CentralSector;
 import pimperium.elements.HSystem;
 import pimperium.elements.Hexagon;
@@ -22,6 +24,7 @@ import pimperium.elements.Ship;
 import pimperium.elements.SideSector;
 import pimperium.players.Bot;
 import pimperium.players.Player;
+import pimperium.utils.MoveValidator;
 import pimperium.utils.Possibilities;
 
 
@@ -43,12 +46,16 @@ public class Game implements Runnable, Serializable {
 	 * Number of players
 	 */
 	public static final int NB_PLAYERS = 3;
+	/**
+	 * Number of rounds of a game, unless a player is eliminated before
+	 */
+	public static final int NB_ROUNDS = 9;
 	/**
 	 * Max amount of ships a player can control
 	 */
 	public static final int MAX_SHIPS = 15;
 	/**
-	 * Delay between bot actions to make the game comprehensible for the user
+	 * Default delay between bot actions (in ms) to make the game comprehensible for the user
 	 */
 	public static final int DELAY = 2000;
 
@@ -79,32 +86,228 @@ public class Game implements Runnable, Serializable {
 	 */
 	private Integer[][] efficiencies;
 	/**
-	 * Instance of Possibilities used to generate all possible moves for each action
+	 * Bitboard layer tracking the occupancy of the map, used for move generation
+	 */
+	private Board board;
+	/**
+	 * Instance of Possibilities used to generate all possible moves for each action, bound to this game
+	 */
+	private Possibilities possibilities;
+	/**
+	 * Zobrist hash of the scores, orders of commands, round and round step. The fleets are hashed by the board
+	 */
+	private long hash;
+	/**
+	 * Seed of the random generator of the game, from which the stream of each player is derived
 	 */
-	private  Possibilities possibilities;
+	private long seed;
 
 	// Non-serializable variables
-	public transient Scanner scanner = new Scanner(System.in);
+	public transient Scanner scanner;
 	private transient Thread t;
-	private transient GameController controller;
+	private transient HumanInterface controller;
+	/**
+	 * Destination of the game log, none when the game runs headless
+	 */
+	private transient LogSink logSink;
+	/**
+	 * Policy deciding how long the game waits after each bot action, chosen when first needed if none has been set
+	 */
+	private transient Pacing pacing;
+	/**
+	 * Random generator of the game, created from the seed when first needed
+	 */
+	private transient SplittableRandom random;
+	/**
+	 * Whether the trace of the game on the standard output is dropped, as for the forks played by the search bots
+	 */
+	private transient boolean silent;
 
 	/**
-	 * Constructor of Game initializing attributes
+	 * Constructor of Game initializing attributes, with a random seed
 	 */
 	public Game() {
+		this(new SplittableRandom().nextLong());
+	}
+
+	/**
+	 * Constructor of Game initializing attributes
+	 *
+	 * @param seed The seed of the random generator, the same seed giving the same map and the same bot decisions
+	 */
+	public Game(long seed) {
+		this.seed = seed;
 		this.round = 0;
 		this.hexs = new Hexagon[MAP_ROWS][MAP_COLS];
 		this.sectors = new Sector[9];
-		this.possibilities = Possibilities.getInstance(this);
+		this.possibilities = new Possibilities(this);
 		this.gameEnded = false;
+		this.scanner = new Scanner(System.in);
+	}
+
+	/**
+	 * Rebuild a game from a snapshot: the hexagons, sectors, players and ships are copied and linked to a new
+	 * board sharing the layout of the original map
+	 *
+	 * @param snapshot The captured state
+	 * @param seed The seed of the random generator of the fork
+	 * @param copier The function copying each player of the original game for the fork
+	 */
+	Game(GameSnapshot snapshot, long seed, BiFunction<Player, Game, Player> copier) {
+		CoreState state = snapshot.state;
+		this.seed = seed;
+		this.silent = true;
+		this.round = state.getRound();
+		this.round_step = state.getRoundStep();
+		this.gameEnded = state.isGameEnded();
+		this.possibilities = new Possibilities(this);
+
+		// Copy the distinct hexagons and link them with the same neighbours, added in the same order so that
+		// the fork iterates them like the original
+		Topology topology = snapshot.board.getTopology();
+		Hexagon[] copies = new Hexagon[topology.size()];
+		for (int i = 0; i < copies.length; i++) {
+			copies[i] = snapshot.board.getHex(i).copy();
+		}
+		for (int i = 0; i < copies.length; i++) {
+			Set<Hexagon> neighbours = new LinkedHashSet<>();
+			for (Hexagon neighbour : snapshot.board.getHex(i).getNeighbours()) {
+				neighbours.add(copies[neighbour.getIndex()]);
+			}
+			copies[i].setNeighbours(neighbours);
+		}
+		this.hexs = new Hexagon[MAP_ROWS][MAP_COLS];
+		for (int i = 0; i < MAP_ROWS; i++) {
+			for (int j = 0; j < MAP_COLS; j++) {
+				Hexagon hex = snapshot.map[i][j];
+				if (hex != null) this.hexs[i][j] = copies[hex.getIndex()];
+			}
+		}
+
+		// Sectors share the systems of the copied hexagons (the central sector is linked to a hexagon out of the map)
+		this.sectors = new Sector[snapshot.sectors.length];
+		for (int s = 0; s < this.sectors.length; s++) {
+			ArrayList<HSystem> systems = new ArrayList<>();
+			for (HSystem system : snapshot.sectors[s].getSystems()) {
+				Hexagon hex = system.getHex();
+				systems.add(snapshot.board.contains(hex) ? copies[hex.getIndex()].getSystem() : hex.copy().getSystem());
+			}
+			this.sectors[s] = snapshot.sectors[s].copy(systems);
+		}
+
+		Player[] byId = new Player[snapshot.players.length];
+		for (int id = 0; id < byId.length; id++) {
+			byId[id] = copier.apply(snapshot.players[id], this);
+			byId[id].setScore(state.getScore(id));
+			byId[id].setOrderCommands(state.getOrderCommands(id));
+		}
+		this.players = new Player[byId.length];
+		for (int k = 0; k < this.players.length; k++) {
+			this.players[k] = byId[state.getPlayerOrder(k)];
+		}
+
+		// Ships are created in the order of their hexagon, then added to their owner in the order of the owner
+		for (int i = 0; i < copies.length; i++) {
+			for (int rank = 0; rank < state.getShipCount(i); rank++) {
+				Ship ship = new Ship(copies[i], byId[state.getShipOwner(i, rank)]);
+				for (int flag = 0; flag < Ship.NUM_FLAGS; flag++) {
+					if (state.hasFlag(i, rank, flag)) ship.setFlag(flag, true);
+				}
+			}
+		}
+		for (int id = 0; id < byId.length; id++) {
+			for (int k = 0; k < state.getFleetSize(id); k++) {
+				Hexagon position = copies[state.getFleetHex(id, k)];
+				byId[id].getShips().add(position.getShips().get(state.getFleetRank(id, k)));
+			}
+		}
+
+		if (state.hasRoundOrder()) {
+			this.orderPlayers = new Player[3][NB_PLAYERS];
+			this.efficiencies = new Integer[3][NB_PLAYERS];
+			for (int i = 0; i < 3; i++) {
+				for (int j = 0; j < NB_PLAYERS; j++) {
+					this.orderPlayers[i][j] = byId[state.getOrderPlayer(i, j)];
+					this.efficiencies[i][j] = state.getEfficiency(i, j);
+				}
+			}
+		}
+
+		this.board = new Board(copies, topology, this.sectors);
+		this.rehash();
+	}
+
+	/**
+	 * Pack the current state of the game in a few hundred bytes
+	 *
+	 * @return The packed state, which can be compared and stored cheaply
+	 */
+	public CoreState getCoreState() {
+		return new CoreState(this);
+	}
+
+	/**
+	 * Capture the current state of the game
+	 *
+	 * @return The snapshot, which can be forked as many times as needed
+	 */
+	public GameSnapshot snapshot() {
+		return new GameSnapshot(this);
+	}
+
+	/**
+	 * Create an independent copy of the game in its current state, without controller, log nor pacing
+	 *
+	 * @return The forked game, with a random seed
+	 */
+	public Game fork() {
+		return this.snapshot().fork();
+	}
+
+	/**
+	 * Create an independent copy of the game in its current state, without controller, log nor pacing
+	 *
+	 * @param seed The seed of the random generator of the fork
+	 * @return The forked game
+	 */
+	public Game fork(long seed) {
+		return this.snapshot().fork(seed);
+	}
+
+	public long getSeed() {
+		return this.seed;
+	}
+
+	/**
+	 * Get the random generator of the game, used for the map and the user interface. A SplittableRandom isn't
+	 * thread-safe: each game owns its generator, and each player draws from its own stream
+	 *
+	 * @return The random generator
+	 */
+	public SplittableRandom getRandom() {
+		if (this.random == null) {
+			this.random = new SplittableRandom(this.seed);
+		}
+		return this.random;
+	}
+
+	/**
+	 * Create the random stream of a player, derived from the seed of the game and the id of the player only,
+	 * so that it doesn't depend on the draws made by the other components
+	 *
+	 * @param playerId The id of the player
+	 * @return A new random generator
+	 */
+	public SplittableRandom createPlayerRandom(int playerId) {
+		return new SplittableRandom(Zobrist.mix(this.seed + Zobrist.mix(playerId + 1)));
 	}
 
 	/**
 	 * Set the instance of game controller
 	 *
-	 * @param controller Instance of controller that links the game with the view
+	 * @param controller Instance of controller that links the game with the view, through which the humans play
 	 */
-	public void setController(GameController controller) {
+	public void setController(HumanInterface controller) {
         this.controller = controller;
     }
 
@@ -113,10 +316,64 @@ public class Game implements Runnable, Serializable {
 	 *
 	 * @return the instance of game controller
 	 */
-    public GameController getController() {
+    public HumanInterface getController() {
         return this.controller;
     }
 
+	/**
+	 * Set the destination of the game log
+	 *
+	 * @param logSink The sink receiving the messages, null to drop them
+	 */
+	public void setLogSink(LogSink logSink) {
+		this.logSink = logSink;
+	}
+
+	/**
+	 * Report a message in the game log, if any
+	 *
+	 * @param message The message to report
+	 * @param player The player concerned by the message, null if it concerns the whole game
+	 * @param style The weight of the font ("normal", "bold" or "error")
+	 */
+	public void log(String message, Player player, String style) {
+		if (this.logSink != null) {
+			this.logSink.log(message, player, style);
+		}
+	}
+
+	/**
+	 * Set the policy deciding how long the game waits after each bot action
+	 *
+	 * @param pacing The pacing, null to use the default one
+	 */
+	public void setPacing(Pacing pacing) {
+		this.pacing = pacing;
+	}
+
+	/**
+	 * Get the pacing of the game. By default, the game waits DELAY ms when it is displayed and doesn't wait when it runs headless
+	 *
+	 * @return the pacing of the game
+	 */
+	public Pacing getPacing() {
+		if (this.pacing == null) {
+			this.pacing = this.controller == null ? Pacing.none() : Pacing.realTime(DELAY);
+		}
+		return this.pacing;
+	}
+
+	/**
+	 * Wait after a bot action, according to the pacing of the game
+	 */
+	public void pause() {
+		try {
+			this.getPacing().pause();
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	/**
 	 * Set the attribute storing the state of the view
 	 */
@@ -140,6 +397,9 @@ public class Game implements Runnable, Serializable {
 	 */
 	public void setPlayers(Player[] players) {
 		this.players = players;
+		for (int i = 0; i < players.length; i++) {
+			players[i].setId(i);
+		}
 	}
 
 	/**
@@ -151,6 +411,92 @@ public class Game implements Runnable, Serializable {
 		return this.round;
 	}
 
+	/**
+	 * Get the Zobrist hash of the game, updated along with the game
+	 *
+	 * @return The hash of the fleets, scores, orders of commands, round and round step
+	 */
+	public long getHash() {
+		return (this.board == null ? 0 : this.board.getHash()) ^ this.hash;
+	}
+
+	/**
+	 * Toggle keys in the hash of the game, when a component of the state held by a player changes
+	 *
+	 * @param keys The xor of the keys of the old and new values of the component
+	 */
+	public void updateHash(long keys) {
+		this.hash ^= keys;
+	}
+
+	/**
+	 * Compute the hash of the game from scratch
+	 */
+	public void rehash() {
+		if (this.board != null) this.board.rehash();
+		this.hash = Zobrist.round(this.round) ^ Zobrist.roundStep(this.round_step);
+		if (this.players != null) {
+			for (Player player : this.players) {
+				this.hash ^= Zobrist.score(player.getId(), player.getScore())
+						^ Zobrist.orderCommands(player.getId(), player.getOrderCommands());
+			}
+		}
+	}
+
+	private void setRound(int round) {
+		this.hash ^= Zobrist.round(this.round) ^ Zobrist.round(round);
+		this.round = round;
+	}
+
+	private void setRoundStep(int roundStep) {
+		this.hash ^= Zobrist.roundStep(this.round_step) ^ Zobrist.roundStep(roundStep);
+		this.round_step = roundStep;
+	}
+
+	/**
+	 * Get the index of the current step of the round
+	 *
+	 * @return the index of the round step (0-1-2)
+	 */
+	public int getRoundStep() {
+		return this.round_step;
+	}
+
+	/**
+	 * Whether the game is over
+	 *
+	 * @return Whether the game has ended, as a boolean
+	 */
+	public boolean isGameEnded() {
+		return this.gameEnded;
+	}
+
+	/**
+	 * Get the order of the players for each round step of the current round
+	 * @return The players, indexed by round step then position, null before the first round
+	 */
+	public Player[][] getOrderPlayers() {
+		return this.orderPlayers;
+	}
+
+	Integer[][] getEfficiencies() {
+		return this.efficiencies;
+	}
+
+	/**
+	 * Write a trace of the game on the standard output, unless the game is silent
+	 * @param message The line to write
+	 */
+	public void print(String message) {
+		if (!this.silent) {
+			System.out.println(message);
+		}
+	}
+
+	public void setSilent(boolean silent) {
+		this.silent = silent;
+	}
+
 	/**
 	 * Initial setup of the map
 	 */
@@ -158,8 +504,9 @@ public class Game implements Runnable, Serializable {
 		this.generateMap();
 		this.createHexNeighbours();
 		this.createTriPrime();
-		System.out.println("Plateau de jeu :");
-		System.out.println(this.displayMap());
+		this.createBoard();
+		this.print("Plateau de jeu :");
+		this.print(this.displayMap());
 	}
 
 	/**
@@ -213,14 +560,14 @@ public class Game implements Runnable, Serializable {
 		for (int i = 0; i <= 5; i++) {
 		    indexes.add(i);
 		}
-		Collections.shuffle(indexes);
+		Collections.shuffle(indexes, this.getRandom());
 		
 		//Add the 3 top sectors
 		for (int i = 0; i < 3; i++) {
 			this.sectors[i] = temp_NormalSectors[indexes.get(i)];
 		}
 		//Add the central row
-		if (Math.random() > 0.5) {
+		if (this.getRandom().nextBoolean()) {
 			this.sectors[3] = new SideSector(0,0,1,0,2,0,"side1.png");
 			this.sectors[4] = new CentralSector();
 			this.sectors[5] = new SideSector(1,1,0,0,2,0,"side2.png");
@@ -337,7 +684,7 @@ public class Game implements Runnable, Serializable {
 		triPrime.addSystem(new HSystem(3)); // Level 3 system
 
 		Set<Hexagon> formerTriPrimes = new HashSet<>();
-		Set<Hexagon> triPrimeNeighbors = new HashSet<>();
+		Set<Hexagon> triPrimeNeighbors = new LinkedHashSet<>();
 
 		// List of coordinates of the central hexes
 		int[][] centralHexCoords = {{3,2}, {4,2}, {4,3}, {5,2}};
@@ -375,6 +722,31 @@ public class Game implements Runnable, Serializable {
 
 	}
 
+	/**
+	 * Index the hexagons of the completed map and build the bitboard layer with the neighbour masks
+	 */
+	public void createBoard() {
+		this.board = new Board(this.hexs, this.sectors);
+	}
+
+	/**
+	 * Get the move generator of the game
+	 *
+	 * @return The instance of Possibilities bound to this game
+	 */
+	public Possibilities getPossibilities() {
+		return this.possibilities;
+	}
+
+	/**
+	 * Get the bitboard layer of the map
+	 *
+	 * @return the board tracking the occupancy of the hexagons
+	 */
+	public Board getBoard() {
+		return this.board;
+	}
+
 	/**
 	 * Retrieve the sector that one hexagon belongs to
 	 *
@@ -382,6 +754,12 @@ public class Game implements Runnable, Serializable {
 	 * @return the sector containing the hexagon
 	 */
 	public Sector findSector(Hexagon hex) {
+		// Hexagons of the map are looked up in the index of the board
+		if (this.board != null && this.board.contains(hex)) {
+			Sector sector = this.board.getSector(hex);
+			// Hexagons without a system linked to a sector default to the first one
+			return sector != null ? sector : this.sectors[0];
+		}
 		//Initialize the sector as the first one
 		Sector sector = this.sectors[0];
 		//Find the sector that contains the hex
@@ -400,11 +778,7 @@ public class Game implements Runnable, Serializable {
 	 * @return the id of the sector
 	 */
 	public int findSectorId(Sector sector) {
-		int id = 0;
-		for (int i = 0; i < this.sectors.length; i++) {
-			if (this.sectors[i] == sector) id = i;
-		}
-		return id;
+		return Math.max(sector.getId(), 0);
 	}
 
 	/**
@@ -504,17 +878,33 @@ public class Game implements Runnable, Serializable {
 		
 		//Set play order and efficiencies for the round
 		this.getPlayOrder();
-		this.round_step = 0;
-		
-		for (int i = 0; i < 3; i++) {
+		this.playRoundFrom(0, 0);
+
+	}
+
+	/**
+	 * Play the rest of the round from a given action, then sustain the ships and score the sectors.
+	 * The search bots use it to finish the round of a game forked in the middle of an action
+	 *
+	 * @param roundStep The round step of the next action
+	 * @param next The position of the next player to act in the order of the round step
+	 */
+	public void playRoundFrom(int roundStep, int next) {
+		this.setRoundStep(roundStep);
+		for (int j = next; j < NB_PLAYERS; j++) {
+			this.orderPlayers[this.round_step][j].doAction(this.round_step, this.efficiencies[this.round_step][j]);
+			triggerInterfaceUpdate();
+		}
+		this.setRoundStep(this.round_step + 1);
+
+		while (this.round_step < 3) {
 			this.playRoundStep();
-			this.round_step++;
+			this.setRoundStep(this.round_step + 1);
 		}
 
 		this.sustainShips();
 		this.pcs.firePropertyChange("hexUpdated", null, null);
 		this.doScore();
-
 	}
 
 	/**
@@ -538,24 +928,16 @@ public class Game implements Runnable, Serializable {
 	 * Perform the sustaining of ships at the end of the round (destroy excess ships)
 	 */
 	public void sustainShips() {
-		System.out.println("Suppression des vaisseaux en trop...");
-		this.getController().getView().addLogMessage("Suppression des vaisseaux en trop...", null, "normal");
-		for (int i = 0; i < MAP_ROWS; i++) {
-			for (int j = 0; j < MAP_COLS; j++) {
-				Hexagon hex = hexs[i][j];
-				if (hex != null) {
-					int systemLevel = hex.getSystemLevel();
-					int maxShips = 1 + systemLevel;
-					List<Ship> ships = hex.getShips();
-					if (ships.size() > maxShips) {
-						int shipsToRemove = ships.size() - maxShips;
-						// Create a copy of the list of ships to destroy, then delete them by iterating over this copy
-						List<Ship> shipsToDestroy = new ArrayList<>(ships.subList(0, shipsToRemove));
-						for (Ship ship : shipsToDestroy) {
-							ship.destroy(); // Return the ship to the reserve
-						}
-					}
-				}
+		this.print("Suppression des vaisseaux en trop...");
+		this.log("Suppression des vaisseaux en trop...", null, "normal");
+		// Only visit the overfull hexagons tracked by the board, and destroy their oldest ships
+		long overfull = this.board.getOverfullMask();
+		while (overfull != 0) {
+			int index = Long.numberOfTrailingZeros(overfull);
+			overfull &= overfull - 1;
+			Hexagon hex = this.board.getHex(index);
+			for (int excess = this.board.getExcess(index); excess > 0; excess--) {
+				hex.getShips().getFirst().destroy(); // Return the ship to the reserve
 			}
 		}
 	}
@@ -579,11 +961,22 @@ public class Game implements Runnable, Serializable {
 	 * Perform the scoring of the round by asking each player to choose a sector to score
 	 */
 	public void doScore() {
-		Set<Sector> scoredSectors = new HashSet<>();
+		this.finishScoring(new HashSet<>(), 0);
+	}
+
+	/**
+	 * Finish the scoring of the round: the players from a given one choose a sector, then the controller of Tri-Prime
+	 * chooses an additional one, and the chosen sectors are scored
+	 *
+	 * @param scoredSectors The sectors already chosen
+	 * @param nextChooser The position of the next player to choose in the play order, NB_PLAYERS if only the controller
+	 *                    of Tri-Prime is left to choose, NB_PLAYERS + 1 if every sector has been chosen
+	 */
+	public void finishScoring(Set<Sector> scoredSectors, int nextChooser) {
 	
 		// Each player chooses a sector to score
-		for (Player player : this.players) {
-			Sector chosenSector = player.chooseSectorToScore(scoredSectors, this.sectors);
+		for (int k = nextChooser; k < NB_PLAYERS; k++) {
+			Sector chosenSector = this.players[k].chooseSectorToScore(scoredSectors, this.sectors);
 			if (chosenSector != null) {
 				scoredSectors.add(chosenSector);
 			}
@@ -591,29 +984,25 @@ public class Game implements Runnable, Serializable {
 	
 		// Check if a player controls Tri-Prime
 		Player triPrimeController = getTriPrimeController();
-		if (triPrimeController != null) {
+		if (triPrimeController != null && nextChooser <= NB_PLAYERS) {
 			// The player controlling Tri-Prime chooses an additional sector
-			System.out.println(triPrimeController.getPseudo() + " controle le Tri-Prime");
-			System.out.println("Il peut choisir un secteur supplémentaire");
-			this.getController().getView().addLogMessage("Contrôle le Tri-Prime, il peut choisir un secteur supplémentaire.", triPrimeController, "normal");
+			this.print(triPrimeController.getPseudo() + " controle le Tri-Prime");
+			this.print("Il peut choisir un secteur supplémentaire");
+			this.log("Contrôle le Tri-Prime, il peut choisir un secteur supplémentaire.", triPrimeController, "normal");
 			Sector additionalSector = triPrimeController.chooseSectorToScore(scoredSectors, this.sectors);
 			if (additionalSector != null) {
 				scoredSectors.add(additionalSector);
 			}
 		}
 	
-		// Calculate points for each player
+		// Calculate points for each player, from the levels controlled in each sector kept up to date by the board
 		for (Player player : this.players) {
 			int score = 0;
 			for (Sector sector : scoredSectors) {
-				for (HSystem system : sector.getSystems()) {
-					if (system.getHex().getOccupant() == player) {
-						score += system.getLevel();
-					}
-				}
+				score += sector.getControlledLevels(player);
 			}
 			player.addScore(score);
-			System.out.println("Le score de " + player.getPseudo() + " est " + score);
+			this.print("Le score de " + player.getPseudo() + " est " + score);
 		}
 
 		this.pcs.firePropertyChange("scoreUpdated", null, null);
@@ -623,28 +1012,23 @@ public class Game implements Runnable, Serializable {
 	 * Perform the final scoring step at the end of the game where points are doubled
 	 */
 	public void doFinalScore() {
-		System.out.println("Calcul du score final...");
+		this.print("Calcul du score final...");
 		
 		// All sectors are scored again with doubled values
 		for (Player player : this.players) {
 			int finalScore = player.getScore(); // Add the points already scored during the game
 			for (Sector sector : this.sectors) {
-				for (HSystem system : sector.getSystems()) {
-					if (system.getHex().getOccupant() == player) {
-						int systemValue = system.getLevel() * 2; // Double the value of the system
-						finalScore += systemValue;
-					}
-					}
+				finalScore += sector.getControlledLevels(player) * 2; // Double the value of the systems
 			}
-			System.out.println("Score final de " + player.getPseudo() + ": " + finalScore);
+			this.print("Score final de " + player.getPseudo() + ": " + finalScore);
 			player.setScore(finalScore);
 		}
 		
 		// Determine the winner
 		Player winner = this.getWinner();
 
-		System.out.println("Le gagnant est " + winner.getPseudo() + " avec " + winner.getScore() + " points!");
-		this.getController().getView().addLogMessage("Le gagnant est " + winner.getPseudo() + " avec " + winner.getScore() + " points!", null, "bold");
+		this.print("Le gagnant est " + winner.getPseudo() + " avec " + winner.getScore() + " points!");
+		this.log("Le gagnant est " + winner.getPseudo() + " avec " + winner.getScore() + " points!", null, "bold");
 
 		this.pcs.firePropertyChange("scoreUpdated", null, null);
 
@@ -674,18 +1058,7 @@ public class Game implements Runnable, Serializable {
 	 * @return The validity of the move as a boolean
 	 */
 	public boolean checkExpandValidity(Hexagon hex, Player player) {
-
-		boolean controlsHex = hex.getOccupant() == player;
-
-		// Get all the ships expandable on the desired location
-		List<Ship> possibleShips = possibilities.expand(player).stream()
-				.filter(ship -> ship.getPosition() == hex) // Condition: keep ships that have not expanded yet
-				.toList();
-
-		boolean enoughShips = !possibleShips.isEmpty();
-
-		return controlsHex && enoughShips;
-
+		return MoveValidator.isValidExpand(this.board, hex, player);
 	}
 
 	/**
@@ -695,10 +1068,7 @@ public class Game implements Runnable, Serializable {
 	 * @return The validity of the move as a boolean
 	 */
 	public boolean checkExploreValidity(Pair<List<Ship>, List<Hexagon>> move) {
-
-		List<Pair<List<Ship>, List<Hexagon>>> possibleMoves = possibilities.explore(move.getKey().getFirst().getOwner());
-
-		return possibleMoves.contains(move);
+		return MoveValidator.isValidExplore(this.board, move);
 	}
 
 	/**
@@ -709,13 +1079,7 @@ public class Game implements Runnable, Serializable {
 	 * @return The validity of the move as a boolean
 	 */
 	public boolean checkExterminateValidity(Pair<Set<Ship>, Hexagon> move, Player player) {
-
-
-		// Check that all the moves are valid
-		List<Pair<Set<Ship>, Hexagon>> possibleMoves = possibilities.exterminate(player);
-
-		return possibleMoves.contains(move);
-
+		return MoveValidator.isValidExterminate(this.board, move, player);
 	}
 
 	/**
@@ -785,31 +1149,53 @@ public class Game implements Runnable, Serializable {
 		// In case we are loading an existing game, instantiate the scanner and possibilities (which is transient)
 		else {
 			this.scanner = new Scanner(System.in);
+			// Saves made before the board existed have to number their players and index their map
+			if (this.board == null) {
+				this.setPlayers(this.players);
+				this.createBoard();
+			}
+			// Saves made when Possibilities was shared between games don't hold the game it belongs to
+			this.possibilities = new Possibilities(this);
 			for (Player p : this.players) {
 				if (p instanceof Bot) ((Bot) p).setPossibilities();
 			}
+			// Saves made before the hash existed don't hold the counters of the board
+			this.rehash();
 		}
 
-		while (this.round < 9 && !gameEnded) {
+		this.playToEnd();
+	}
+
+	/**
+	 * Play the remaining rounds, then the final scoring
+	 */
+	public void playToEnd() {
+		while (this.round < NB_ROUNDS && !gameEnded) {
 			this.playRound();
-	
-			// Verifies if a player lost all his ships
-			for (Player player : this.players) {
-				if (player.countShips() == 0) {
-					System.out.println(player.getPseudo() + " lost all his ships.");
-					this.getController().getView().addLogMessage(player.getPseudo() + " a perdu tous ses vaisseaux.", null, "normal");
-					player.setScore(0);
-					gameEnded = true;
-				}
-			}
-			this.round++;
-			this.pcs.firePropertyChange("roundOver", null, null);
+			this.endRound();
 		}
 	
 		// Final scoring
 		this.doFinalScore();
 	}
 
+	/**
+	 * Close the round once it has been scored: end the game if a player lost all his ships, and go to the next round
+	 */
+	public void endRound() {
+		// Verifies if a player lost all his ships
+		for (Player player : this.players) {
+			if (player.countShips() == 0) {
+				this.print(player.getPseudo() + " lost all his ships.");
+				this.log(player.getPseudo() + " a perdu tous ses vaisseaux.", null, "normal");
+				player.setScore(0);
+				gameEnded = true;
+			}
+		}
+		this.setRound(this.round + 1);
+		this.pcs.firePropertyChange("roundOver", null, null);
+	}
+
 	/**
 	 * Add the Property Change Listener to the game Property Change Support
 	 *
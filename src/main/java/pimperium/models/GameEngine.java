@@ -0,0 +1,139 @@
+package pimperium.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import pimperium.players.Bot;
+import pimperium.players.DefensiveBot;
+import pimperium.players.Difficulty;
+import pimperium.players.MctsBot;
+import pimperium.players.OffensiveBot;
+import pimperium.players.Player;
+import pimperium.players.RandomBot;
+import pimperium.utils.Colors;
+
+/**
+ * Headless runner playing bot-only games without controller nor view, on the calling thread and without delays
+ */
+public class GameEngine {
+
+	/**
+	 * Sink writing the game log to the standard output
+	 */
+	public static final LogSink CONSOLE = (message, player, style) ->
+			System.out.println((player == null ? "" : "[" + player.getPseudo() + "] ") + message.strip());
+
+	private GameEngine() {
+	}
+
+	/**
+	 * Create a bot of a given strategy
+	 *
+	 * @param game The game the bot plays
+	 * @param strategy The strategy, named as in the menu ("Offensif", "Défensif", "MCTS" or "Aléatoire") or without
+	 *                 accent for the command line ("offensive", "defensive", "mcts" or "random"), optionally followed
+	 *                 by a difficulty tier giving the budget of its decisions ("mcts:hard", "Offensif:Facile")
+	 * @param color The color of the bot
+	 * @return The bot, playing randomly if the strategy is unknown
+	 */
+	public static Bot createBot(Game game, String strategy, Colors color) {
+		int separator = strategy.indexOf(':');
+		if (separator >= 0) {
+			Bot bot = createBot(game, strategy.substring(0, separator), color);
+			bot.setDifficulty(Difficulty.parse(strategy.substring(separator + 1)));
+			return bot;
+		}
+		switch (strategy) {
+			case "Offensif", "offensive":
+				return new OffensiveBot(game, color);
+			case "Défensif", "defensive":
+				return new DefensiveBot(game, color);
+			case "MCTS", "mcts":
+				return new MctsBot(game, color);
+			case "Aléatoire", "random":
+			default:
+				return new RandomBot(game, color);
+		}
+	}
+
+	/**
+	 * Create a bot-only game with a random seed and set up its map
+	 *
+	 * @param strategies The strategy of each bot, in play order (length 3)
+	 * @param logSink The destination of the game log, null to drop it
+	 * @return The game, ready to be played
+	 */
+	public static Game createGame(List<String> strategies, LogSink logSink) {
+		return createGame(strategies, logSink, new SplittableRandom().nextLong());
+	}
+
+	/**
+	 * Create a bot-only game and set up its map. Games created with the same strategies and seed are played
+	 * exactly the same way
+	 *
+	 * @param strategies The strategy of each bot, in play order (length 3)
+	 * @param logSink The destination of the game log, null to drop it
+	 * @param seed The seed of the game
+	 * @return The game, ready to be played
+	 */
+	public static Game createGame(List<String> strategies, LogSink logSink, long seed) {
+		return createGame(strategies, logSink, seed, false);
+	}
+
+	/**
+	 * Create a bot-only game and set up its map, optionally without any trace on the standard output
+	 *
+	 * @param strategies The strategy of each bot, in play order (length 3)
+	 * @param logSink The destination of the game log, null to drop it
+	 * @param seed The seed of the game
+	 * @param silent Whether the trace of the game is dropped, from the setup of the map on
+	 * @return The game, ready to be played
+	 */
+	public static Game createGame(List<String> strategies, LogSink logSink, long seed, boolean silent) {
+		if (strategies.size() != Game.NB_PLAYERS) {
+			throw new IllegalArgumentException("A game needs " + Game.NB_PLAYERS + " players.");
+		}
+		Game game = new Game(seed);
+		game.setSilent(silent);
+		game.setLogSink(logSink);
+
+		List<Player> players = new ArrayList<>();
+		for (int i = 0; i < strategies.size(); i++) {
+			Bot bot = createBot(game, strategies.get(i), Colors.values()[i]);
+			bot.setPseudo("Bot " + (i + 1) + " (" + strategies.get(i) + ")");
+			players.add(bot);
+		}
+		game.setPlayers(players.toArray(new Player[0]));
+		game.setup();
+		return game;
+	}
+
+	/**
+	 * Play a game until it's over, on the calling thread
+	 *
+	 * @param game The game to play
+	 * @return The winner
+	 */
+	public static Player play(Game game) {
+		game.run();
+		return game.getWinner();
+	}
+
+	/**
+	 * Play a single headless game and display its log
+	 *
+	 * @param args The strategies of the 3 bots (random bots by default), then optionally the seed of the game
+	 *             to replay it
+	 */
+	public static void main(String[] args) {
+		List<String> strategies = args.length < Game.NB_PLAYERS
+				? Arrays.asList("Aléatoire", "Aléatoire", "Aléatoire")
+				: Arrays.asList(args).subList(0, Game.NB_PLAYERS);
+		long seed = args.length > Game.NB_PLAYERS ? Long.parseLong(args[Game.NB_PLAYERS]) : new SplittableRandom().nextLong();
+		Player winner = play(createGame(strategies, CONSOLE, seed));
+		System.out.println("Gagnant : " + winner.getPseudo() + " (" + winner.getScore() + " points), graine " + seed);
+	}
+
+}
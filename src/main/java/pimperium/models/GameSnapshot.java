@@ -0,0 +1,93 @@
+package pimperium.models;
+
+import java.util.SplittableRandom;
+import java.util.function.BiFunction;
+
+import pimperium.elements.Hexagon;
+import pimperium.elements.Sector;
+import pimperium.players.Player;
+
+/**
+ * Immutable capture of the state of a game, which can be forked many times into independent playable games.
+ * Forks can be created concurrently by several threads, as long as the original game doesn't change meanwhile.
+ * The dynamic state is packed in a CoreState, while the layout of the map (hexagons, systems, sectors, players)
+ * is read from the original game, since it doesn't change once the game is set up
+ */
+public final class GameSnapshot {
+
+	/**
+	 * Board of the original game, giving the hexagons to copy and the shared layout
+	 */
+	final Board board;
+	/**
+	 * Map of the original game, giving the position of each hexagon in the matrix
+	 */
+	final Hexagon[][] map;
+	final Sector[] sectors;
+	/**
+	 * Players of the original game, indexed by id
+	 */
+	final Player[] players;
+	final CoreState state;
+
+	/**
+	 * Capture the state of a game
+	 * @param game The game, once its board has been created
+	 */
+	GameSnapshot(Game game) {
+		this.board = game.getBoard();
+		if (this.board == null) {
+			throw new IllegalStateException("The game must be set up before taking a snapshot.");
+		}
+		this.map = game.getMap();
+		this.sectors = game.getSectors();
+		this.players = new Player[game.getPlayers().length];
+		for (Player player : game.getPlayers()) {
+			this.players[player.getId()] = player;
+		}
+		this.state = new CoreState(game);
+	}
+
+	/**
+	 * Create an independent game in the captured state. The fork has no controller, log nor pacing,
+	 * and its players are copies of the original ones
+	 * @return The forked game, with a random seed
+	 */
+	public Game fork() {
+		return this.fork(new SplittableRandom().nextLong());
+	}
+
+	/**
+	 * Create an independent game in the captured state, with a given seed. Forks of the same snapshot with the
+	 * same seed play the same way
+	 * @param seed The seed of the random generator of the fork
+	 * @return The forked game
+	 */
+	public Game fork(long seed) {
+		return new Game(this, seed, Player::copyFor);
+	}
+
+	/**
+	 * Create an independent game in the captured state, whose players are chosen by the caller, for instance
+	 * to play the rest of the game with a fast policy
+	 * @param seed The seed of the random generator of the fork
+	 * @param copier The function creating the player of the fork standing for each player of the original game
+	 * @return The forked game
+	 */
+	public Game fork(long seed, BiFunction<Player, Game, Player> copier) {
+		return new Game(this, seed, copier);
+	}
+
+	/**
+	 * Get the packed dynamic state of the snapshot
+	 * @return The state
+	 */
+	public CoreState getState() {
+		return this.state;
+	}
+
+	public int getRound() {
+		return this.state.getRound();
+	}
+
+}
@@ -0,0 +1,41 @@
+package pimperium.models;
+
+import pimperium.elements.Hexagon;
+import pimperium.elements.Sector;
+import pimperium.players.Human;
+
+/**
+ * Interface through which the human players interact with the game, implemented by the controller of the view.
+ * The model only knows this interface, so it compiles and runs without any graphical toolkit.
+ * The implementation notifies its own monitor once a human player has chosen its order of commands
+ */
+public interface HumanInterface {
+
+	/**
+	 * Wait for the user to select a hexagon
+	 * @return The hexagon chosen by the user
+	 * @throws InterruptedException If the game is stopped meanwhile
+	 */
+	Hexagon waitForHexagonSelection() throws InterruptedException;
+
+	/**
+	 * Wait for the user to select a sector
+	 * @return The sector chosen by the user
+	 * @throws InterruptedException If the game is stopped meanwhile
+	 */
+	Sector waitForSectorSelection() throws InterruptedException;
+
+	/**
+	 * Wait for the user to enter a number
+	 * @return The number entered by the user
+	 * @throws InterruptedException If the game is stopped meanwhile
+	 */
+	int waitForUserInput() throws InterruptedException;
+
+	/**
+	 * Show a human player the choice of its order of commands
+	 * @param player The player choosing its order
+	 */
+	void showCommandSelection(Human player);
+
+}
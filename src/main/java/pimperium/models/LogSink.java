@@ -0,0 +1,19 @@
+package pimperium.models;
+
+import pimperium.players.Player;
+
+/**
+ * Destination of the messages describing the course of a game (the game log of the interface, the console...)
+ */
+@FunctionalInterface
+public interface LogSink {
+
+    /**
+     * Report a message
+     * @param message The message to report
+     * @param player The player concerned by the message, null if it concerns the whole game
+     * @param style The weight of the font ("normal" or "bold")
+     */
+    void log(String message, Player player, String style);
+
+}
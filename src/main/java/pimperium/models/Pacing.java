@@ -0,0 +1,58 @@
+package pimperium.models;
+
+/**
+ * Policy deciding how long the game waits after each bot action, so that the user can follow the game
+ */
+@FunctionalInterface
+public interface Pacing {
+
+	/**
+	 * Wait after a bot action
+	 *
+	 * @throws InterruptedException If the game thread is interrupted while waiting
+	 */
+	void pause() throws InterruptedException;
+
+	/**
+	 * Don't wait at all, to play games as fast as possible
+	 *
+	 * @return The pacing
+	 */
+	static Pacing none() {
+		return () -> {};
+	}
+
+	/**
+	 * Wait a fixed delay after each action
+	 *
+	 * @param delay The delay in milliseconds
+	 * @return The pacing
+	 */
+	static Pacing realTime(long delay) {
+		if (delay <= 0) return none();
+		return () -> Thread.sleep(delay);
+	}
+
+	/**
+	 * Play the game faster than real time
+	 *
+	 * @param speed The speed factor applied to the default delay (2 means twice as fast)
+	 * @return The pacing
+	 */
+	static Pacing fastForward(double speed) {
+		if (speed <= 0) {
+			throw new IllegalArgumentException("The speed must be positive.");
+		}
+		return realTime(Math.round(Game.DELAY / speed));
+	}
+
+	/**
+	 * Wait for the user to ask for the next action
+	 *
+	 * @return The pacing, whose step() method lets the game play one more action
+	 */
+	static StepPacing step() {
+		return new StepPacing();
+	}
+
+}
@@ -0,0 +1,29 @@
+package pimperium.models;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Pacing playing one bot action each time it is asked to
+ */
+public final class StepPacing implements Pacing {
+
+	/**
+	 * Actions allowed to be played and not played yet
+	 */
+	private final Semaphore steps = new Semaphore(0);
+
+	StepPacing() {
+	}
+
+	public void pause() throws InterruptedException {
+		this.steps.acquire();
+	}
+
+	/**
+	 * Let the game play its next action
+	 */
+	public void step() {
+		this.steps.release();
+	}
+
+}
@@ -0,0 +1,259 @@
+package pimperium.models;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import pimperium.elements.HSystem;
+import pimperium.elements.Hexagon;
+import pimperium.elements.Sector;
+import pimperium.utils.Moves;
+
+/**
+ * Immutable index of the layout of the map, built once the neighbours and Tri-Prime have been created.
+ * It only refers to the hexagons by their index, so it can be shared by every board using the same layout
+ */
+public final class Topology implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Number of distinct hexagons
+	 */
+	private final int size;
+	/**
+	 * Indexes of the direct neighbours of each hexagon, in increasing order
+	 */
+	private final int[][] neighbours;
+	/**
+	 * Mask of the direct neighbours of each hexagon
+	 */
+	private final long[] neighbourMasks;
+	/**
+	 * Mask of the hexagons holding a system, for each level (index 0 holds the hexagons without system)
+	 */
+	private final long[] levelMasks;
+	/**
+	 * Number of ships each hexagon can sustain at the end of a round (1 + the level of its system)
+	 */
+	private final int[] capacities;
+	/**
+	 * Mask of all the hexagons holding a system (level 1 or more)
+	 */
+	private final long systemMask;
+	private final long triPrimeMask;
+	/**
+	 * Mask of the system hexagons of each sector
+	 */
+	private final long[] sectorMasks;
+	/**
+	 * Id of the sector holding the system of each hexagon, -1 if the hexagon has no system linked to a sector
+	 */
+	private final int[] sectorIds;
+	/**
+	 * Length of the shortest path between each pair of hexagons
+	 */
+	private final int[][] distances;
+	/**
+	 * Largest distance between two hexagons
+	 */
+	private final int diameter;
+	/**
+	 * Mask of the hexagons at most d hexs away from each hexagon, indexed by hexagon then d (up to the diameter)
+	 */
+	private final long[][] withinMasks;
+	/**
+	 * Legal two-step paths: for each origin and first step, the mask of the possible second steps.
+	 * A fleet can't go through Tri-Prime nor come back to its origin
+	 */
+	private final long[][] secondStepMasks;
+
+	/**
+	 * Build the index of the layout
+	 * @param hexs The distinct hexagons of the map, each at the position of its index
+	 * @param sectors The 9 sectors of the map
+	 */
+	public Topology(Hexagon[] hexs, Sector[] sectors) {
+
+		this.size = hexs.length;
+		this.neighbours = new int[this.size][];
+		this.neighbourMasks = new long[this.size];
+		this.levelMasks = new long[4];
+		this.capacities = new int[this.size];
+		long triPrimes = 0;
+		for (int i = 0; i < this.size; i++) {
+			Hexagon hex = hexs[i];
+			for (Hexagon neighbour : hex.getNeighbours()) {
+				this.neighbourMasks[i] |= Board.bit(neighbour.getIndex());
+			}
+			if (Long.bitCount(this.neighbourMasks[i]) > Moves.MAX_ORIGINS) {
+				throw new IllegalStateException("Too many neighbours to encode the Exterminate moves of " + hex + ".");
+			}
+			this.neighbours[i] = indexes(this.neighbourMasks[i]);
+			this.levelMasks[hex.getSystemLevel()] |= Board.bit(i);
+			this.capacities[i] = 1 + hex.getSystemLevel();
+			if (hex.isTriPrime()) {
+				triPrimes |= Board.bit(i);
+			}
+		}
+		this.triPrimeMask = triPrimes;
+		this.systemMask = this.levelMasks[1] | this.levelMasks[2] | this.levelMasks[3];
+
+		this.sectorMasks = new long[sectors.length];
+		this.sectorIds = new int[this.size];
+		Arrays.fill(this.sectorIds, -1);
+		for (int s = 0; s < sectors.length; s++) {
+			for (HSystem system : sectors[s].getSystems()) {
+				// The system of the central sector is not linked to a hexagon of the map
+				if (system.getHex() != null && system.getHex().getIndex() >= 0) {
+					this.sectorMasks[s] |= Board.bit(system.getHex().getIndex());
+					this.sectorIds[system.getHex().getIndex()] = s;
+				}
+			}
+		}
+
+		// Breadth-first search from each hexagon, one ring at a time
+		this.distances = new int[this.size][this.size];
+		int maxDistance = 0;
+		for (int i = 0; i < this.size; i++) {
+			Arrays.fill(this.distances[i], -1);
+			long visited = Board.bit(i);
+			long ring = visited;
+			for (int d = 0; ring != 0; d++) {
+				long next = 0;
+				for (long mask = ring; mask != 0; mask &= mask - 1) {
+					int hex = Long.numberOfTrailingZeros(mask);
+					this.distances[i][hex] = d;
+					next |= this.neighbourMasks[hex];
+				}
+				maxDistance = Math.max(maxDistance, d);
+				ring = next & ~visited;
+				visited |= ring;
+			}
+		}
+		this.diameter = maxDistance;
+
+		this.withinMasks = new long[this.size][this.diameter + 1];
+		for (int i = 0; i < this.size; i++) {
+			for (int j = 0; j < this.size; j++) {
+				if (this.distances[i][j] >= 0) {
+					for (int d = this.distances[i][j]; d <= this.diameter; d++) {
+						this.withinMasks[i][d] |= Board.bit(j);
+					}
+				}
+			}
+		}
+
+		this.secondStepMasks = new long[this.size][this.size];
+		for (int origin = 0; origin < this.size; origin++) {
+			for (int step : this.neighbours[origin]) {
+				if ((this.triPrimeMask & Board.bit(step)) == 0) {
+					this.secondStepMasks[origin][step] = this.neighbourMasks[step] & ~Board.bit(origin);
+				}
+			}
+		}
+	}
+
+	/**
+	 * List the indexes of the bits set in a mask
+	 * @param mask The mask
+	 * @return The indexes, in increasing order
+	 */
+	private static int[] indexes(long mask) {
+		int[] indexes = new int[Long.bitCount(mask)];
+		int k = 0;
+		for (; mask != 0; mask &= mask - 1) {
+			indexes[k++] = Long.numberOfTrailingZeros(mask);
+		}
+		return indexes;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Get the direct neighbours of a hexagon
+	 * @param index The index of the hexagon
+	 * @return The indexes of the neighbours, in increasing order (the array must not be modified)
+	 */
+	public int[] getNeighbours(int index) {
+		return this.neighbours[index];
+	}
+
+	public long getNeighbourMask(int index) {
+		return this.neighbourMasks[index];
+	}
+
+	public long getLevelMask(int level) {
+		return this.levelMasks[level];
+	}
+
+	public long getSystemMask() {
+		return this.systemMask;
+	}
+
+	/**
+	 * Get the number of ships a hexagon can sustain
+	 * @param index The index of the hexagon
+	 * @return 1 + the level of the system of the hexagon
+	 */
+	public int getCapacity(int index) {
+		return this.capacities[index];
+	}
+
+	public long getTriPrimeMask() {
+		return this.triPrimeMask;
+	}
+
+	public long getSectorMask(int sectorId) {
+		return this.sectorMasks[sectorId];
+	}
+
+	public int getNumSectors() {
+		return this.sectorMasks.length;
+	}
+
+	/**
+	 * Get the sector holding the system of a hexagon
+	 * @param index The index of the hexagon
+	 * @return The id of the sector, -1 if the hexagon has no system linked to a sector
+	 */
+	public int getSectorId(int index) {
+		return this.sectorIds[index];
+	}
+
+	/**
+	 * Get the length of the shortest path between two hexagons
+	 * @param from The index of the first hexagon
+	 * @param to The index of the second hexagon
+	 * @return The number of steps, or -1 if there is no path
+	 */
+	public int getDistance(int from, int to) {
+		return this.distances[from][to];
+	}
+
+	public int getDiameter() {
+		return this.diameter;
+	}
+
+	/**
+	 * Get the hexagons close to a given hexagon
+	 * @param index The index of the hexagon
+	 * @param distance The maximum distance
+	 * @return The mask of the hexagons at most distance hexs away, the hexagon itself included
+	 */
+	public long getWithinMask(int index, int distance) {
+		return this.withinMasks[index][Math.min(distance, this.diameter)];
+	}
+
+	/**
+	 * Get the second steps of the legal two-step paths
+	 * @param origin The index of the hexagon the path starts from
+	 * @param step The index of the first step, a neighbour of the origin
+	 * @return The mask of the possible destinations, empty if the first step is Tri-Prime
+	 */
+	public long getSecondStepMask(int origin, int step) {
+		return this.secondStepMasks[origin][step];
+	}
+
+}
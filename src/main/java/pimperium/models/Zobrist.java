@@ -0,0 +1,95 @@
+package pimperium.models;
+
+/**
+ * Keys of the Zobrist hash of a game. The hash of a game is the xor of the keys of its components, so that each
+ * change of the game only toggles the keys of the components it changes.
+ * Keys are derived from the description of the component with the SplitMix64 finalizer instead of being drawn
+ * at random: they are the same on every run, and two different components never share a key
+ */
+public final class Zobrist {
+
+	private static final int HEX = 1;
+	private static final int FLAGS = 2;
+	private static final int SCORE = 3;
+	private static final int ORDER = 4;
+	private static final int ROUND = 5;
+	private static final int ROUND_STEP = 6;
+
+	private Zobrist() {
+	}
+
+	/**
+	 * SplitMix64 step, a bijection of the longs mixing all the bits of its input
+	 * @param x The value to mix
+	 * @return The mixed value
+	 */
+	public static long mix(long x) {
+		long z = x + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Get the key of a component, described by its kind and 3 small values
+	 */
+	private static long key(int kind, int a, int b, int c) {
+		return mix((long) kind << 48 | (long) (a & 0xFFFF) << 32 | (long) (b & 0xFFFF) << 16 | (c & 0xFFFF));
+	}
+
+	/**
+	 * Get the key of the fleet of a hexagon
+	 * @param index The index of the hexagon
+	 * @param ownerId The id of the occupant
+	 * @param count The number of ships on the hexagon
+	 * @return The key, 0 for an empty hexagon
+	 */
+	public static long hex(int index, int ownerId, int count) {
+		return count == 0 ? 0 : key(HEX, index, ownerId, count);
+	}
+
+	/**
+	 * Get the key of the number of ships of a hexagon having a given combination of flags
+	 * @param index The index of the hexagon
+	 * @param flags The mask of the flags of the ships (bits Ship.EXPANDED, Ship.EXPLORED and Ship.EXTERMINATED)
+	 * @param count The number of ships of the hexagon having exactly these flags
+	 * @return The key, 0 if no ship has these flags
+	 */
+	public static long flags(int index, int flags, int count) {
+		return count == 0 ? 0 : key(FLAGS, index, flags, count);
+	}
+
+	/**
+	 * Get the key of the score of a player
+	 * @param playerId The id of the player
+	 * @param score The score
+	 * @return The key, 0 for a null score
+	 */
+	public static long score(int playerId, int score) {
+		return score == 0 ? 0 : key(SCORE, playerId, score >>> 16, score);
+	}
+
+	/**
+	 * Get the key of the order of commands of a player
+	 * @param playerId The id of the player
+	 * @param orderCommands The order of commands, as a length-3 array
+	 * @return The key, 0 if the order hasn't been chosen
+	 */
+	public static long orderCommands(int playerId, int[] orderCommands) {
+		if (orderCommands == null) return 0;
+		int code = 0;
+		for (int command : orderCommands) {
+			code = code * 3 + command;
+		}
+		return key(ORDER, playerId, orderCommands.length, code);
+	}
+
+	public static long round(int round) {
+		return round == 0 ? 0 : key(ROUND, 0, 0, round);
+	}
+
+	public static long roundStep(int roundStep) {
+		return roundStep == 0 ? 0 : key(ROUND_STEP, 0, 0, roundStep);
+	}
+
+}
@@ -2,11 +2,11 @@ package pimperium.players;
 
 import java.util.*;
 
-import pimperium.elements.HSystem;
 import pimperium.elements.Hexagon;
 import pimperium.elements.Sector;
 import pimperium.utils.Colors;
 import pimperium.models.Game;
+import pimperium.utils.MoveBuffer;
 import pimperium.utils.Possibilities;
 
 /**
@@ -14,14 +14,178 @@ import pimperium.utils.Possibilities;
  */
 public abstract class Bot extends Player{
 
+    /**
+     * Pinned to the class of the older saves, so that they can still be loaded
+     */
+    private static final long serialVersionUID = -9162184886333977508L;
+
     /**
      * Instance of Possibilities used to calculate all possible moves for each action
      */
     protected Possibilities possibilities;
+    /**
+     * Buffer reused to generate the possible Explore and Exterminate moves, created on first use
+     */
+    private transient MoveBuffer possibleMoves;
+    /**
+     * Buffer reused to store the best moves found while choosing one, created on first use
+     */
+    private transient MoveBuffer bestMoves;
+    /**
+     * Limits of each decision, none by default. Null in the bots of the saves made before the budgets
+     */
+    protected Budget budget = Budget.UNLIMITED;
+
+    /**
+     * The last finished decision, and the statistics of all the decisions since the creation of the bot
+     */
+    private transient Decision lastDecision;
+    private transient long decisions;
+    private transient long nodes;
+    private transient long decisionNanos;
+    private transient long maxDecisionNanos;
 
     public Bot(Game game, Colors color) {
         super(game, color);
-        this.possibilities = Possibilities.getInstance(game);
+        this.possibilities = game.getPossibilities();
+    }
+
+    /**
+     * Copy the bot for a forked game, with the same budget
+     * @param game The forked game
+     * @return The copy of the bot
+     */
+    public Player copyFor(Game game) {
+        Bot copy = (Bot) super.copyFor(game);
+        copy.budget = this.budget;
+        return copy;
+    }
+
+    /**
+     * Set the limits of each decision. When they are spent, the bot plays the best move found so far
+     * @param budget The budget of each decision
+     */
+    public void setBudget(Budget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Get the limits of each decision
+     * @return The budget, unlimited for the bots loaded from saves made before the budgets
+     */
+    public Budget getBudget() {
+        return this.budget != null ? this.budget : Budget.UNLIMITED;
+    }
+
+    /**
+     * Get the buffer reused to generate the possible Explore and Exterminate moves
+     * @return The buffer, with the moves of the last generation
+     */
+    protected MoveBuffer possibleMoves() {
+        if (this.possibleMoves == null) this.possibleMoves = new MoveBuffer();
+        return this.possibleMoves;
+    }
+
+    /**
+     * Get the buffer reused to store the best moves found while choosing one
+     * @return The buffer, with the moves of the last choice
+     */
+    protected MoveBuffer bestMoves() {
+        if (this.bestMoves == null) this.bestMoves = new MoveBuffer();
+        return this.bestMoves;
+    }
+
+    /**
+     * Set the budget of each decision from a difficulty tier
+     * @param difficulty The tier
+     */
+    public void setDifficulty(Difficulty difficulty) {
+        this.setBudget(difficulty.getBudget());
+    }
+
+    /**
+     * Start a decision within the budget of the bot
+     * @return The decision, whose clock runs from now
+     */
+    protected Decision startDecision() {
+        return new Decision(this.getBudget());
+    }
+
+    /**
+     * Get the next candidate of a decision. A decision with a budget draws it among the candidates not visited yet,
+     * so that once cut off it has scored a uniform sample of them, not the first ones generated around the hexagons
+     * of lowest index. Without budget, all the candidates are visited in the order they were generated
+     * @param candidates The candidates of the decision, reordered in place
+     * @param visited The number of candidates already visited
+     * @return The candidate to visit next
+     */
+    protected long drawCandidate(MoveBuffer candidates, int visited) {
+        if (!this.getBudget().isUnlimited()) {
+            candidates.swap(visited, visited + this.getRandom().nextInt(candidates.size() - visited));
+        }
+        return candidates.get(visited);
+    }
+
+    /**
+     * Get the next candidate of a decision, drawn among the candidates not visited yet when the decision has a budget
+     * @param candidates The candidates of the decision, reordered in place
+     * @param visited The number of candidates already visited
+     * @return The candidate to visit next
+     */
+    protected <T> T drawCandidate(List<T> candidates, int visited) {
+        if (!this.getBudget().isUnlimited()) {
+            Collections.swap(candidates, visited, visited + this.getRandom().nextInt(candidates.size() - visited));
+        }
+        return candidates.get(visited);
+    }
+
+    /**
+     * Finish a decision and add it to the statistics of the bot
+     * @param decision The decision started by startDecision
+     */
+    protected void endDecision(Decision decision) {
+        decision.finish();
+        this.lastDecision = decision;
+        this.decisions++;
+        this.nodes += decision.getNodes();
+        this.decisionNanos += decision.getElapsedNanos();
+        this.maxDecisionNanos = Math.max(this.maxDecisionNanos, decision.getElapsedNanos());
+    }
+
+    /**
+     * Get the statistics of the last decision
+     * @return The decision, null before the first one
+     */
+    public Decision getLastDecision() {
+        return this.lastDecision;
+    }
+
+    public long getDecisions() {
+        return this.decisions;
+    }
+
+    /**
+     * Get the number of nodes evaluated since the creation of the bot
+     * @return The number of nodes of all the decisions
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Get the time spent deciding since the creation of the bot
+     * @return The time in nanoseconds
+     */
+    public long getDecisionNanos() {
+        return this.decisionNanos;
+    }
+
+    /**
+     * Get the time taken by the longest decision
+     * @return The time in nanoseconds
+     */
+    public long getMaxDecisionNanos() {
+        return this.maxDecisionNanos;
     }
 
     /**
@@ -31,15 +195,14 @@ public abstract class Bot extends Player{
 
         List<Hexagon> possHexs = possibilities.setupFleet();
 
-        Random random = new Random();
-        Hexagon hex = possHexs.get(random.nextInt(possHexs.size()));
+        Hexagon hex = possHexs.get(this.getRandom().nextInt(possHexs.size()));
 
         // Add ships to the selected hexagon
         this.createShip(hex);
         this.createShip(hex);
 
-        System.out.println("Deux navires de " + this.getPseudo() + " ont été placés sur l'hexagone " + hex);
-        game.getController().getView().addLogMessage("Deux navires ont été placés sur l'hexagone " + hex, this, "normal");
+        game.print("Deux navires de " + this.getPseudo() + " ont été placés sur l'hexagone " + hex);
+        game.log("Deux navires ont été placés sur l'hexagone " + hex, this, "normal");
     }
 
     /**
@@ -52,10 +215,10 @@ public abstract class Bot extends Player{
         numbers.add(1);
         numbers.add(2);
 
-        Collections.shuffle(numbers);
+        Collections.shuffle(numbers, this.getRandom());
 
         // Convert random ArrayList to array
-        this.orderCommands = numbers.stream().mapToInt(i -> i).toArray();
+        this.setOrderCommands(numbers.stream().mapToInt(i -> i).toArray());
     }
 
     /**
@@ -66,7 +229,7 @@ public abstract class Bot extends Player{
      */
     public Sector chooseSectorToScore(Set<Sector> scoredSectors, Sector[] sectors) {
 
-        Set<Sector> availableSectors = new HashSet<>();
+        Set<Sector> availableSectors = new LinkedHashSet<>();
         for (Sector sector : sectors) {
             if (!scoredSectors.contains(sector) && !sector.isTriPrime()) availableSectors.add(sector);
         }
@@ -75,29 +238,32 @@ public abstract class Bot extends Player{
 
         int bestScore = -100;
         int score = 0;
+        Decision decision = this.startDecision();
 
         for (Sector sector : availableSectors) {
-            score = 0;
-            for (HSystem system : sector.getSystems()) {
-                if (system.getHex().getOccupant() != null) {
-                    score += system.getLevel() * ( system.getHex().getOccupant() == this ? 1 : -1);
-                }
-            }
+            if (!decision.next()) break;
+            // Levels of the systems controlled by the player, minus the ones controlled by the opponents
+            score = 2 * sector.getControlledLevels(this) - sector.getOccupiedLevels();
             if (score > bestScore) {
                 bestScore = score;
                 chosenSector = sector;
             }
         }
+        if (!decision.isCutOff()) decision.completeIteration();
+        this.endDecision(decision);
 
-        System.out.println(this.getPseudo() + " choisit le secteur à scorer");
+        game.print(this.getPseudo() + " choisit le secteur à scorer");
 
-        System.out.println(this.getPseudo() + " a choisi le secteur " + game.findSectorId(chosenSector) + " à scorer.");
-        game.getController().getView().addLogMessage(" A choisi le secteur " + game.findSectorId(chosenSector) + ".", this, "normal");
+        game.print(this.getPseudo() + " a choisi le secteur " + game.findSectorId(chosenSector) + " à scorer.");
+        game.log(" A choisi le secteur " + game.findSectorId(chosenSector) + ".", this, "normal");
         return chosenSector;
     }
 
+    /**
+     * Fetch again the move generator of the game, after the game has been loaded
+     */
     public void setPossibilities() {
-        this.possibilities = Possibilities.getInstance(this.game);
+        this.possibilities = this.game.getPossibilities();
     }
 
 }
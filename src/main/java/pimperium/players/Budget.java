@@ -0,0 +1,67 @@
+package pimperium.players;
+
+import java.io.Serializable;
+
+/**
+ * Limits given to each decision of a bot: a time and a number of nodes (moves scored, playouts or evaluated rounds).
+ * The decision stops as soon as one of them is spent, and plays the best move found so far.
+ * A decision may overrun its time by the node in progress, a whole playout for the search bots.
+ * A node limit alone keeps the games reproducible from their seed, a time limit depends on the load of the machine
+ */
+public final class Budget implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * No limit: each decision computes until done
+     */
+    public static final Budget UNLIMITED = new Budget(0, 0);
+
+    /**
+     * Time given to each decision in milliseconds, 0 for no time limit
+     */
+    private final long timeMillis;
+    /**
+     * Number of nodes of each decision, 0 for no limit
+     */
+    private final long nodes;
+
+    /**
+     * Create a budget
+     * @param timeMillis The time given to each decision in milliseconds, 0 for no time limit
+     * @param nodes The number of nodes of each decision, 0 for no limit
+     */
+    public Budget(long timeMillis, long nodes) {
+        if (timeMillis < 0 || nodes < 0) {
+            throw new IllegalArgumentException("A budget can't be negative.");
+        }
+        this.timeMillis = timeMillis;
+        this.nodes = nodes;
+    }
+
+    public static Budget ofTime(long timeMillis) {
+        return new Budget(timeMillis, 0);
+    }
+
+    public static Budget ofNodes(long nodes) {
+        return new Budget(0, nodes);
+    }
+
+    public long getTimeMillis() {
+        return this.timeMillis;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public boolean isUnlimited() {
+        return this.timeMillis == 0 && this.nodes == 0;
+    }
+
+    public String toString() {
+        return (this.timeMillis > 0 ? this.timeMillis + " ms" : "temps illimité") + ", "
+                + (this.nodes > 0 ? this.nodes + " nœuds" : "nœuds illimités");
+    }
+
+}
@@ -0,0 +1,137 @@
+package pimperium.players;
+
+/**
+ * Clock and statistics of a single decision of a bot. The bot asks the decision whether some budget is left before
+ * each node, so it can stop at any time and play the best move found so far
+ */
+public final class Decision {
+
+    private final Budget budget;
+    private final long start;
+    /**
+     * Time at which the decision must stop, in the time base of System.nanoTime()
+     */
+    private final long deadline;
+    private long nodes;
+    /**
+     * Number of complete iterations of the decision (passes over all the candidates)
+     */
+    private int depth;
+    /**
+     * Whether the decision was stopped by its budget before completing its iterations
+     */
+    private boolean cutOff;
+    private long elapsedNanos = -1;
+
+    /**
+     * Start a decision, its clock running from now
+     * @param budget The limits of the decision
+     */
+    public Decision(Budget budget) {
+        this.budget = budget;
+        this.start = System.nanoTime();
+        this.deadline = budget.getTimeMillis() > 0 ? this.start + budget.getTimeMillis() * 1_000_000 : Long.MAX_VALUE;
+    }
+
+    /**
+     * Whether the next node fits in the budget. Once it doesn't, the decision is marked as cut off
+     * @return Whether the decision may evaluate one more node
+     */
+    public boolean hasBudget() {
+        if (this.budget.getNodes() > 0 && this.nodes >= this.budget.getNodes() || this.deadline != Long.MAX_VALUE && System.nanoTime() >= this.deadline) {
+            this.cutOff = true;
+        }
+        return !this.cutOff;
+    }
+
+    /**
+     * Count the next node if it fits in the budget. The first node is always evaluated, so that a move is found
+     * @return Whether the decision may evaluate the node, false once the budget is spent
+     */
+    public boolean next() {
+        if (this.nodes > 0 && !this.hasBudget()) return false;
+        this.nodes++;
+        return true;
+    }
+
+    /**
+     * Count an evaluated node
+     */
+    public void countNode() {
+        this.nodes++;
+    }
+
+    /**
+     * Count nodes evaluated elsewhere, for instance by the workers of a search
+     * @param nodes The number of nodes
+     */
+    public void addNodes(long nodes) {
+        this.nodes += nodes;
+    }
+
+    /**
+     * Get the number of nodes the decision may still evaluate
+     * @return The number of nodes left, Long.MAX_VALUE without node limit
+     */
+    public long getRemainingNodes() {
+        return this.budget.getNodes() > 0 ? Math.max(0, this.budget.getNodes() - this.nodes) : Long.MAX_VALUE;
+    }
+
+    public long getDeadline() {
+        return this.deadline;
+    }
+
+    /**
+     * Record a complete pass over all the candidates
+     */
+    public void completeIteration() {
+        this.depth++;
+    }
+
+    /**
+     * Record the number of complete iterations, when deepening the decision
+     * @param depth The number of passes over all the candidates
+     */
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    /**
+     * Mark the decision as stopped by its budget, when the search checked the budget itself
+     */
+    public void setCutOff() {
+        this.cutOff = true;
+    }
+
+    /**
+     * Stop the clock of the decision
+     */
+    void finish() {
+        this.elapsedNanos = System.nanoTime() - this.start;
+    }
+
+    public Budget getBudget() {
+        return this.budget;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public boolean isCutOff() {
+        return this.cutOff;
+    }
+
+    /**
+     * Get the time taken by the decision
+     * @return The time in nanoseconds, up to now if the decision isn't finished
+     */
+    public long getElapsedNanos() {
+        return this.elapsedNanos >= 0 ? this.elapsedNanos : System.nanoTime() - this.start;
+    }
+
+}
@@ -1,23 +1,91 @@
 package pimperium.players;
 
 import java.util.*;
-import javafx.util.Pair;
-import pimperium.elements.HSystem;
 import pimperium.elements.Hexagon;
 import pimperium.elements.Sector;
 import pimperium.elements.Ship;
+import pimperium.models.Board;
 import pimperium.models.Game;
 import pimperium.utils.Colors;
+import pimperium.utils.MoveBuffer;
+import pimperium.utils.Moves;
 
 /**
  * Bot player with a defensive strategy
  */
 public class DefensiveBot extends Bot {
 
+    /**
+     * Pinned to the class of the older saves, so that they can still be loaded
+     */
+    private static final long serialVersionUID = 6151928242242701003L;
+
+    /**
+     * Values read by the heuristics during the current decision
+     */
+    private transient EvaluationContext context;
+
+    /**
+     * Values read by the heuristics, computed once per decision since the board doesn't change while the bot chooses
+     */
+    private static final class EvaluationContext {
+        /**
+         * Defensive score of each hexagon
+         */
+        private final int[] defensiveScores;
+        /**
+         * Number of hexagons controlled by the bot next to each hexagon
+         */
+        private final int[] nearbyAllies;
+        /**
+         * Number of hexagons controlled by an enemy next to each hexagon
+         */
+        private final int[] nearbyEnemies;
+        /**
+         * Systems and levels controlled by the bot, then levels occupied by anyone, in each sector
+         */
+        private final int[] controlledSystems;
+        private final int[] controlledLevels;
+        private final int[] occupiedLevels;
+
+        private EvaluationContext(DefensiveBot bot, Board board, Sector[] sectors) {
+
+            this.controlledSystems = new int[sectors.length];
+            this.controlledLevels = new int[sectors.length];
+            this.occupiedLevels = new int[sectors.length];
+            for (int s = 0; s < sectors.length; s++) {
+                this.controlledSystems[s] = sectors[s].getControlledSystems(bot);
+                this.controlledLevels[s] = sectors[s].getControlledLevels(bot);
+                this.occupiedLevels[s] = sectors[s].getOccupiedLevels();
+            }
+
+            long allies = board.getOccupiedMask(bot);
+            long enemies = board.getEnemyMask(bot);
+            this.defensiveScores = new int[board.size()];
+            this.nearbyAllies = new int[board.size()];
+            this.nearbyEnemies = new int[board.size()];
+            for (int i = 0; i < board.size(); i++) {
+                Hexagon hexagon = board.getHex(i);
+                long neighbours = board.getNeighbourMask(i);
+                this.nearbyAllies[i] = Long.bitCount(neighbours & allies);
+                this.nearbyEnemies[i] = Long.bitCount(neighbours & enemies);
+
+                Sector sector = board.getSector(hexagon);
+                int sectorControl = sector == null ? 0 : sector.getControlledSystems(bot);
+                this.defensiveScores[i] = bot.calculateDefensiveScore(hexagon, sectorControl, this.nearbyEnemies[i],
+                        sector != null && sector.isTriPrime());
+            }
+        }
+    }
+
     public DefensiveBot(Game game, Colors color) {
         super(game, color);
     }
 
+    protected Player newInstance(Game game) {
+        return new DefensiveBot(game, this.color);
+    }
+
     /**
      * Choose the sector to score
      * @param scoredSectors The set of sectors that have already been chosen by other players this round (a sector can't be chosen twice)
@@ -25,33 +93,28 @@ public class DefensiveBot extends Bot {
      * @return The chosen sector to score
      */
     public Sector chooseSectorToScore(Set<Sector> scoredSectors, Sector[] sectors) {
-        Set<Sector> availableSectors = new HashSet<>();
-        for (Sector sector : sectors) {
-            if (!scoredSectors.contains(sector) && !sector.isTriPrime()) 
-                availableSectors.add(sector);
-        }
+        this.context = new EvaluationContext(this, game.getBoard(), sectors);
 
         Sector chosenSector = sectors[0];
         int bestScore = -100;
+        Decision decision = this.startDecision();
 
-        for (Sector sector : availableSectors) {
-            int score = 0;
-            int ownedSystems = 0;
-            boolean hasHighLevelSystem = false;
-            
-            for (HSystem system : sector.getSystems()) {
-                if (system.getHex().getOccupant() != null) {
-                    if (system.getHex().getOccupant() == this) {
-                        score += system.getLevel() * 2;
-                        ownedSystems++;
-                        if (system.getLevel() >= 2) {
-                            hasHighLevelSystem = true;
-                        }
-                    } else {
-                        score -= system.getLevel();
-                    }
-                }
-            }
+        // Sectors that can still be scored
+        List<Integer> candidates = new ArrayList<>();
+        for (int s = 0; s < sectors.length; s++) {
+            if (!scoredSectors.contains(sectors[s]) && !sectors[s].isTriPrime()) candidates.add(s);
+        }
+
+        for (int k = 0; k < candidates.size(); k++) {
+            if (!decision.next()) break;
+            int s = this.drawCandidate(candidates, k);
+            Sector sector = sectors[s];
+
+            int ownedLevels = this.context.controlledLevels[s];
+            int ownedSystems = this.context.controlledSystems[s];
+            int score = ownedLevels * 2 - (this.context.occupiedLevels[s] - ownedLevels);
+            // Every system has a level of at least 1, so the levels only exceed the count with a system of level 2 or more
+            boolean hasHighLevelSystem = ownedLevels > ownedSystems;
 
             // Bonus for majority control of the sector
             if (ownedSystems > sector.getSystems().size() / 2) {
@@ -67,107 +130,39 @@ public class DefensiveBot extends Bot {
                 chosenSector = sector;
             }
         }
+        if (!decision.isCutOff()) decision.completeIteration();
+        this.endDecision(decision);
 
-        System.out.println(this.getPseudo() + " choisit le secteur à scorer");
-        System.out.println(this.getPseudo() + " a choisi le secteur " + game.findSectorId(chosenSector) + " à scorer.");
-        game.getController().getView().addLogMessage(" A choisi le secteur " + game.findSectorId(chosenSector) + ".", this, "normal");
+        game.print(this.getPseudo() + " choisit le secteur à scorer");
+        game.print(this.getPseudo() + " a choisi le secteur " + game.findSectorId(chosenSector) + " à scorer.");
+        game.log(" A choisi le secteur " + game.findSectorId(chosenSector) + ".", this, "normal");
         return chosenSector;
     }
 
-    /**
-     * Count the number of hexagons controlled by the player within a given range around a given position
-     * @param hexagon The hexagon considered
-     * @param range The maximum distance to find allies
-     * @return The number of allies within the range
-     */
-    private int countNearbyAllies(Hexagon hexagon, int range) {
-        Set<Hexagon> considered = new HashSet<>();
-        Set<Hexagon> allies = new HashSet<>();
-        Set<Hexagon> current = new HashSet<>();
-        current.add(hexagon);
-
-        for (int i = 0; i < range; i++) {
-            Set<Hexagon> next = new HashSet<>();
-            for (Hexagon hex : current) {
-                for (Hexagon neighbor : hex.getNeighbours()) {
-                    if (!considered.contains(neighbor)) {
-                        next.add(neighbor);
-                        if (neighbor.getOccupant() == this) {
-                            allies.add(neighbor);
-                        }
-                    }
-                }
-            }
-            considered.addAll(current);
-            current = next;
-        }
-        return allies.size();
-    }
-
-    /**
-     * Count the number of systems controlled by the player in the sector containing a given hexagon
-     * @param hexagon The hexagon considered
-     * @return The number os systems controlled in the sector
-     */
-    private int calculateSectorControl(Hexagon hexagon) {
-        // Find which sector the hexagon belongs to
-        Sector hexSector = null;
-        for (Sector sector : game.getSectors()) {
-            if (sector.getSystems().stream().anyMatch(sys -> sys.getHex() == hexagon)) {
-            hexSector = sector;
-            break;
-            }
-        }
-        
-        if (hexSector == null) return 0;
-        
-        // Count the number of systems controlled in this sector
-        int controlledSystems = 0;
-        for (HSystem system : hexSector.getSystems()) {
-            if (system.getHex().getOccupant() == this) {
-            controlledSystems++;
-            }
-        }
-        
-        return controlledSystems;
-    }
-
     /**
      * Calculate a strategic score for a given hexagon
      * @param hexagon The hexagon considered
+     * @param sectorControl The number of systems controlled by the player in the sector of the hexagon
+     * @param nearbyEnemies The number of neighbours controlled by an enemy
+     * @param isTriPrime Whether the hexagon belongs to Tri-Prime
      * @return The defensive score of the hexagon
      */
-    private int calculateDefensiveScore(Hexagon hexagon) {
+    private int calculateDefensiveScore(Hexagon hexagon, int sectorControl, int nearbyEnemies, boolean isTriPrime) {
         int score = hexagon.getSystemLevel() * 2; // Base score
         
         // Strong bonus for sector control
-        score += calculateSectorControl(hexagon) * 4;
+        score += sectorControl * 4;
         
-        // Bonus for non-saturated systems
-        int currentShips = hexagon.getShips().size();
-        int maxShips = hexagon.getSystemLevel() + 1;
-        if (currentShips < maxShips - 1) {
+        // Bonus for non-saturated systems, with room for 2 more ships
+        if (!game.getBoard().wouldOverfill(hexagon.getIndex(), 2)) {
             score += 3;
         }
         
         // Penalty for proximity to enemies
-        for (Hexagon neighbor : hexagon.getNeighbours()) {
-            if (neighbor.getOccupant() != null && neighbor.getOccupant() != this) {
-            score -= 2;
-            }
-        }
+        score -= 2 * nearbyEnemies;
         
         // Bonus for Tri-Prime if we already have good control
-        boolean isTriPrime = false;
-        for (Sector sector : game.getSectors()) {
-            if (sector.isTriPrime() && sector.getSystems().stream()
-            .anyMatch(sys -> sys.getHex() == hexagon)) {
-            isTriPrime = true;
-            break;
-            }
-        }
-        
-        if (isTriPrime && calculateSectorControl(hexagon) >= 2) {
+        if (isTriPrime && sectorControl >= 2) {
             score += 5;
         }
         
@@ -180,21 +175,25 @@ public class DefensiveBot extends Bot {
      * @return The ship chosen to Expand on
      */
     public Ship chooseExpand(List<Ship> possShips) {
+        Board board = game.getBoard();
         List<Ship> bestShips = new ArrayList<>();
         int bestScore = -100;
+        this.context = new EvaluationContext(this, board, game.getSectors());
+        Decision decision = this.startDecision();
 
-        for (Ship ship : possShips) {
-            int score = calculateDefensiveScore(ship.getPosition());
+        for (int k = 0; k < possShips.size(); k++) {
+            if (!decision.next()) break;
+            Ship ship = this.drawCandidate(possShips, k);
+            int score = this.context.defensiveScores[ship.getPosition().getIndex()];
             
             // Strong penalty if the system is near saturation
-            int currentShips = ship.getPosition().getShips().size();
-            int maxShips = ship.getPosition().getSystemLevel() + 1;
-            if (currentShips >= maxShips - 1) {
+            int index = ship.getPosition().getIndex();
+            if (board.wouldOverfill(index, 2)) {
                 score -= 10; 
             }
 
             // Bonus for well-protected systems
-            score += Math.min(ship.getPosition().getShips().size(), 2);
+            score += Math.min(board.getShipCount(index), 2);
 
             if (score > bestScore) {
                 bestShips.clear();
@@ -204,61 +203,100 @@ public class DefensiveBot extends Bot {
                 bestShips.add(ship);
             }
         }
+        if (!decision.isCutOff()) decision.completeIteration();
+        this.endDecision(decision);
 
-        Random random = new Random();
         if (!bestShips.isEmpty()) {
-            return bestShips.get(random.nextInt(bestShips.size()));
+            return bestShips.get(this.getRandom().nextInt(bestShips.size()));
         }
-        return possShips.get(random.nextInt(possShips.size()));
+        return possShips.get(this.getRandom().nextInt(possShips.size()));
     }
 
     /**
-     * Strategically choose which action to perform for Explore
-     * @param possibleMoves List of possible Explore moves
-     * @return The chosen move
+     * Score the move of a single ship during an Explore
+     * @param origin The hexagon the ship leaves
+     * @param destination The hexagon the ship reaches
+     * @return The defensive score of the ship move
      */
-    public Pair<List<Ship>, List<Hexagon>> chooseExplore(List<Pair<List<Ship>, List<Hexagon>>> possibleMoves) {
-        int bestScore = -100;
-        List<Pair<List<Ship>, List<Hexagon>>> bestMoves = new ArrayList<>();
+    private int calculateShipMoveScore(Hexagon origin, Hexagon destination) {
+        int score = 0;
 
-        for (Pair<List<Ship>, List<Hexagon>> move : possibleMoves) {
-            int score = 0;
-            
-            for (int i = 0; i < move.getKey().size(); i++) {
-                Hexagon origin = move.getKey().get(i).getPosition();
-                Hexagon destination = move.getValue().get(i);
-                
-                // Bonus if the destination system is not saturated
-                int futureShips = destination.getShips().size() + 1;
-                if (futureShips <= destination.getSystemLevel() + 1) {
-                    score += 3;
-                }
-                
-                // Bonus for force distribution
-                if (origin.getShips().size() > origin.getSystemLevel()) {
-                    score += 2; // Encourage moving ships from overloaded systems
-                }
-
-                // Evaluate the move defensively
-                score += calculateDefensiveScore(destination);
-                score -= calculateDefensiveScore(origin) / 2; // Reduced penalty for leaving a position
-                
-                // Bonus for staying close to allied systems
-                if (countNearbyAllies(destination, 1) > countNearbyAllies(origin, 1)) {
-                    score += 3;
-                }
-                
-                // Reduced penalty for already controlled hexagons
-                score += (destination.getOccupant() == this ? -1 : 0);
-            }
+        // Bonus if the destination system is not saturated
+        Board board = game.getBoard();
+        if (!board.wouldOverfill(destination.getIndex(), 1)) {
+            score += 3;
+        }
+
+        // Bonus for force distribution
+        if (board.getShipCount(origin.getIndex()) >= board.getCapacity(origin.getIndex())) {
+            score += 2; // Encourage moving ships from overloaded systems
+        }
+
+        // Evaluate the move defensively
+        score += this.context.defensiveScores[destination.getIndex()];
+        score -= this.context.defensiveScores[origin.getIndex()] / 2; // Reduced penalty for leaving a position
+
+        // Bonus for staying close to allied systems
+        if (this.context.nearbyAllies[destination.getIndex()] > this.context.nearbyAllies[origin.getIndex()]) {
+            score += 3;
+        }
+
+        // Reduced penalty for already controlled hexagons
+        score += (destination.getOccupant() == this ? -1 : 0);
+
+        return score;
+    }
+
+    /**
+     * Calculate the penalty of sending ships to a hexagon
+     * @param hex The destination of the ships
+     * @param shipsGoing The number of ships ending their move on the hexagon
+     * @return The penalty for the system overload
+     */
+    private int calculateOverloadPenalty(Hexagon hex, int shipsGoing) {
+        return 3 * game.getBoard().getOverload(hex.getIndex(), shipsGoing);
+    }
 
-            // Check for system overload
-            Set<Hexagon> targets = new HashSet<>(move.getValue());
-            for (Hexagon hex : targets) {
-                int shipsGoing = Collections.frequency(move.getValue(), hex);
-                if (hex.getShips().size() + shipsGoing > hex.getSystemLevel() + 1) {
-                    score -= 3 * (hex.getShips().size() + shipsGoing - hex.getSystemLevel() - 1);
-                }
+    /**
+     * Strategically choose which action to perform for Explore
+     * @param possibleMoves The possible Explore moves, packed
+     * @return The chosen packed move
+     */
+    public long chooseExplore(MoveBuffer possibleMoves) {
+        Board board = game.getBoard();
+        int bestScore = -100;
+        MoveBuffer bestMoves = this.bestMoves();
+        bestMoves.clear();
+        this.context = new EvaluationContext(this, board, game.getSectors());
+        Decision decision = this.startDecision();
+
+        for (int m = 0; m < possibleMoves.size(); m++) {
+            if (!decision.next()) break;
+            long move = this.drawCandidate(possibleMoves, m);
+            Hexagon origin = board.getHex(Moves.origin(move));
+            Hexagon target1 = board.getHex(Moves.target1(move));
+            int numShips = Moves.numShips(move);
+
+            int score;
+            if (!Moves.isDistance2(move)) {
+                score = numShips * calculateShipMoveScore(origin, target1);
+                score -= calculateOverloadPenalty(target1, numShips);
+            } else {
+                Hexagon target2 = board.getHex(Moves.target2(move));
+                int pickedUp = target1.getShips().size();
+                int dropped = Moves.dropped(move);
+                // The dropped ships are the last of the extended fleet: the picked up ones first, then the ones from the origin
+                int droppedPickedUp = Math.min(dropped, pickedUp);
+                int droppedOrigin = dropped - droppedPickedUp;
+
+                score = droppedOrigin * calculateShipMoveScore(origin, target1)
+                        + droppedPickedUp * calculateShipMoveScore(target1, target1)
+                        + (numShips - droppedOrigin) * calculateShipMoveScore(origin, target2)
+                        + (pickedUp - droppedPickedUp) * calculateShipMoveScore(target1, target2);
+
+                // Check for system overload
+                if (dropped > 0) score -= calculateOverloadPenalty(target1, dropped);
+                score -= calculateOverloadPenalty(target2, numShips + pickedUp - dropped);
             }
 
             if (score > bestScore) {
@@ -269,37 +307,40 @@ public class DefensiveBot extends Bot {
                 bestMoves.add(move);
             }
         }
+        if (!decision.isCutOff()) decision.completeIteration();
+        this.endDecision(decision);
 
-        Random random = new Random();
-        return bestMoves.get(random.nextInt(bestMoves.size()));
+        return bestMoves.get(this.getRandom().nextInt(bestMoves.size()));
     }
 
     /**
      * Strategically choose which action to perform for Exterminate
-     * @param possibleMoves List of possible Exterminate moves
-     * @return The chosen move
+     * @param possibleMoves The possible Exterminate moves, packed
+     * @return The chosen packed move
      */
-    public Pair<Set<Ship>, Hexagon> chooseExterminate(List<Pair<Set<Ship>, Hexagon>> possibleMoves) {
-        List<Pair<Set<Ship>, Hexagon>> bestMoves = new ArrayList<>();
+    public long chooseExterminate(MoveBuffer possibleMoves) {
+        Board board = game.getBoard();
+        MoveBuffer bestMoves = this.bestMoves();
+        bestMoves.clear();
         int bestScore = -100;
+        this.context = new EvaluationContext(this, board, game.getSectors());
+        Decision decision = this.startDecision();
 
-        for (Pair<Set<Ship>, Hexagon> move : possibleMoves) {
+        for (int m = 0; m < possibleMoves.size(); m++) {
+            if (!decision.next()) break;
+            long move = this.drawCandidate(possibleMoves, m);
             int score = 0;
-            Hexagon target = move.getValue();
+            Hexagon target = board.getHex(Moves.target(move));
             
             // Evaluate the threat level of the target
             int threatLevel = target.getSystemLevel() * target.getShips().size();
             score += threatLevel; // Priority to significant threats
             
             // Bonus if our nearby systems are threatened
-            for (Hexagon neighbor : target.getNeighbours()) {
-                if (neighbor.getOccupant() == this) {
-                    score += 5;
-                }
-            }
+            score += 5 * this.context.nearbyAllies[target.getIndex()];
             
             // Consider the number of ships we might lose
-            int potentialLosses = Math.min(move.getKey().size(), target.getShips().size());
+            int potentialLosses = Math.min(Moves.totalCount(move), target.getShips().size());
             score -= potentialLosses * 2; // Penalty for potential losses
             
             if (score > bestScore) {
@@ -310,9 +351,10 @@ public class DefensiveBot extends Bot {
                 bestMoves.add(move);
             }
         }
+        if (!decision.isCutOff()) decision.completeIteration();
+        this.endDecision(decision);
 
-        Random random = new Random();
-        return bestMoves.get(random.nextInt(bestMoves.size()));
+        return bestMoves.get(this.getRandom().nextInt(bestMoves.size()));
     }
 
     /**
@@ -320,15 +362,15 @@ public class DefensiveBot extends Bot {
      * @param efficiency Efficiency of the action
      */
     public void doExpand(int efficiency) {
-        System.out.println(this.getPseudo() + " s'étend");
-        game.getController().getView().addLogMessage("Expand (efficacité : " + efficiency + ")", this, "normal");
+        game.print(this.getPseudo() + " s'étend");
+        game.log("Expand (efficacité : " + efficiency + ")", this, "normal");
 
         for (int i = 0; i < efficiency; i++) {
             List<Ship> possShips = possibilities.expand(this);
 
             if (possShips.isEmpty()) {
-                System.out.println("Aucune expansion possible.");
-                game.getController().getView().addLogMessage("Aucune expansion possible.", this, "normal");
+                game.print("Aucune expansion possible.");
+                game.log("Aucune expansion possible.", this, "normal");
                 return;
             }
 
@@ -337,15 +379,11 @@ public class DefensiveBot extends Bot {
             this.expand.setShip(ship);
             this.expand.execute();
 
-            game.getController().getView().addLogMessage("Vaisseau ajouté en " + ship.getPosition(), this, "normal");
+            game.log("Vaisseau ajouté en " + ship.getPosition(), this, "normal");
 
             this.game.triggerInterfaceUpdate();
 
-            try {
-                Thread.sleep(Game.DELAY);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            this.game.pause();
         }
     }
 
@@ -354,38 +392,34 @@ public class DefensiveBot extends Bot {
      * @param efficiency Efficiency of the action
      */
     public void doExplore(int efficiency) {
-        System.out.println(this.getPseudo() + " explore");
-        game.getController().getView().addLogMessage("Explore (efficacité : " + efficiency + ")", this, "normal");
+        game.print(this.getPseudo() + " explore");
+        game.log("Explore (efficacité : " + efficiency + ")", this, "normal");
     
         for (int i = 0; i < efficiency; i++) {
-            List<Pair<List<Ship>, List<Hexagon>>> possibleMoves = possibilities.explore(this);
+            MoveBuffer possibleMoves = this.possibleMoves();
+            possibilities.explore(this, possibleMoves);
     
             if (possibleMoves.isEmpty()) {
-                System.out.println("Aucun mouvement d'exploration possible.");
-                game.getController().getView().addLogMessage("Aucune exploration possible.", this, "normal");
+                game.print("Aucun mouvement d'exploration possible.");
+                game.log("Aucune exploration possible.", this, "normal");
                 return;
             }
     
-            Pair<List<Ship>, List<Hexagon>> move = chooseExplore(possibleMoves);
+            long move = chooseExplore(possibleMoves);
     
-            this.explore.setShips(move.getKey());
-            this.explore.setTargets(move.getValue());
+            this.explore.setMove(move, game.getBoard());
             this.explore.execute();
     
-            int fleetSize = move.getKey().size();
+            int fleetSize = this.explore.getShips().size();
             if (fleetSize > 1) {
-                game.getController().getView().addLogMessage("Flotte de " + move.getKey().size() + " vaisseaux déplacés en " + move.getValue(), this, "normal");
+                game.log("Flotte de " + fleetSize + " vaisseaux déplacés en " + this.explore.getTargets(), this, "normal");
             } else {
-                game.getController().getView().addLogMessage("Un vaisseau déplacé en " + move.getValue(), this, "normal");
+                game.log("Un vaisseau déplacé en " + this.explore.getTargets(), this, "normal");
             }
     
             this.game.triggerInterfaceUpdate();
     
-            try {
-                Thread.sleep(Game.DELAY);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            this.game.pause();
         }
     }
 
@@ -394,38 +428,34 @@ public class DefensiveBot extends Bot {
      * @param efficiency Efficiency of the action
      */
     public void doExterminate(int efficiency) {
-        System.out.println(this.getPseudo() + " extermine");
-        game.getController().getView().addLogMessage("Exterminate (efficacité : " + efficiency + ")", this, "normal");
+        game.print(this.getPseudo() + " extermine");
+        game.log("Exterminate (efficacité : " + efficiency + ")", this, "normal");
     
         for (int i = 0; i < efficiency; i++) {
-            List<Pair<Set<Ship>, Hexagon>> possibleMoves = possibilities.exterminate(this);
+            MoveBuffer possibleMoves = this.possibleMoves();
+            possibilities.exterminate(this, possibleMoves);
     
             if (possibleMoves.isEmpty()) {
-                System.out.println("Aucun mouvement d'extermination possible.");
-                game.getController().getView().addLogMessage("Aucune extermination possible", this, "normal");
+                game.print("Aucun mouvement d'extermination possible.");
+                game.log("Aucune extermination possible", this, "normal");
                 return;
             }
     
-            Pair<Set<Ship>, Hexagon> move = chooseExterminate(possibleMoves);
+            long move = chooseExterminate(possibleMoves);
     
-            this.exterminate.setShips(move.getKey());
-            this.exterminate.setTarget(move.getValue());
+            this.exterminate.setMove(move, game.getBoard());
             this.exterminate.execute();
     
-            int fleetSize = move.getKey().size();
+            int fleetSize = this.exterminate.getShips().size();
             if (fleetSize > 1) {
-                game.getController().getView().addLogMessage("Flotte de " + move.getKey().size() + " vaisseaux exterminent en " + move.getValue(), this, "normal");
+                game.log("Flotte de " + fleetSize + " vaisseaux exterminent en " + this.exterminate.getTarget(), this, "normal");
             } else {
-                game.getController().getView().addLogMessage("Un vaisseau extermine en " + move.getValue(), this, "normal");
+                game.log("Un vaisseau extermine en " + this.exterminate.getTarget(), this, "normal");
             }
     
             this.game.triggerInterfaceUpdate();
     
-            try {
-                Thread.sleep(Game.DELAY);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            this.game.pause();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package pimperium.players;
+
+/**
+ * Difficulty tiers of the bots, each giving a budget to every decision. The heuristic bots only score a random
+ * sample of the moves within the node limit on the lower tiers, while the search bots run more playouts on the higher ones
+ */
+public enum Difficulty {
+
+    EASY("Facile", new Budget(25, 50)),
+    NORMAL("Normal", new Budget(100, 1000)),
+    HARD("Difficile", new Budget(400, 0)),
+    EXPERT("Expert", new Budget(1500, 0));
+
+    private final String label;
+    private final Budget budget;
+
+    Difficulty(String label, Budget budget) {
+        this.label = label;
+        this.budget = budget;
+    }
+
+    public String getLabel() {
+        return this.label;
+    }
+
+    public Budget getBudget() {
+        return this.budget;
+    }
+
+    /**
+     * Find a tier from its name or its label
+     * @param name The name of the tier, like "hard" or "Difficile", whatever the case
+     * @return The tier
+     */
+    public static Difficulty parse(String name) {
+        for (Difficulty difficulty : values()) {
+            if (difficulty.name().equalsIgnoreCase(name) || difficulty.label.equalsIgnoreCase(name)) {
+                return difficulty;
+            }
+        }
+        throw new IllegalArgumentException("Difficulté inconnue : " + name);
+    }
+
+}
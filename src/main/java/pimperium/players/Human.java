@@ -2,14 +2,13 @@ package pimperium.players;
 
 import java.util.*;
 
-import javafx.util.Pair;
+import pimperium.utils.Pair;
 
 import pimperium.elements.Hexagon;
 import pimperium.elements.Sector;
 import pimperium.elements.Ship;
 import pimperium.models.Game;
 import pimperium.utils.Colors;
-import pimperium.utils.Possibilities;
 
 
 /**
@@ -17,10 +16,19 @@ import pimperium.utils.Possibilities;
  */
 public class Human extends Player {
 
+	/**
+	 * Pinned to the class of the older saves, so that they can still be loaded
+	 */
+	private static final long serialVersionUID = -6684796935417963473L;
+
 	public Human(Game game, Colors color) {
 		super(game, color);
 	}
 
+	protected Player newInstance(Game game) {
+		return new Human(game, this.color);
+	}
+
 	/**
 	 * Perform the initial fleet setup through the interface
 	 */
@@ -36,7 +44,7 @@ public class Human extends Player {
 		}
 
 		System.out.println(this.getPseudo() + ", cliquez sur l'hexagone où vous souhaitez placer votre flotte.");
-		game.getController().getView().addLogMessage("Cliquez sur l'hexagone où vous souhaitez placer votre flotte.", this, "normal");
+		game.log("Cliquez sur l'hexagone où vous souhaitez placer votre flotte.", this, "normal");
 
 		synchronized (game.getController()) {
 			try {
@@ -45,7 +53,7 @@ public class Human extends Player {
 				// Vérifier que l'hexagone est valide pour le placement initial
 				if (hex == null || hex.getSystem() == null || hex.getSystem().getLevel() != 1) {
 					System.out.println("Hexagone invalide pour placer la flotte. Veuillez choisir un autre hexagone.");
-					game.getController().getView().addLogMessage("Hexagone invalide pour placer la flotte. Veuillez choisir un autre hexagone.", this, "error");
+					game.log("Hexagone invalide pour placer la flotte. Veuillez choisir un autre hexagone.", this, "error");
 					setupInitialFleet(); // Ask for input again
 					return;
 				}
@@ -53,14 +61,14 @@ public class Human extends Player {
 				// Check that the hex is not already occupied by anyone and not empty
 				if (hex.getOccupant() != null && hex.getOccupant() != this) {
 					System.out.println("Ce système est déjà contrôlé par un autre joueur. Veuillez choisir un autre hexagone.");
-					game.getController().getView().addLogMessage("Ce système est déjà contrôlé par un autre joueur. Veuillez choisir un autre hexagone.", this, "error");
+					game.log("Ce système est déjà contrôlé par un autre joueur. Veuillez choisir un autre hexagone.", this, "error");
 					setupInitialFleet(); // Ask for input again
 					return;
 				}
 
 				if (!hex.getShips().isEmpty()) {
 					System.out.println("Cet hexagone contient déjà des vaisseaux. Veuillez choisir un autre hexagone.");
-					game.getController().getView().addLogMessage("Cet hexagone contient déjà des vaisseaux. Veuillez choisir un autre hexagone.", this, "error");
+					game.log("Cet hexagone contient déjà des vaisseaux. Veuillez choisir un autre hexagone.", this, "error");
 					setupInitialFleet(); // Ask for input again
 					return;
 				}
@@ -68,7 +76,7 @@ public class Human extends Player {
 				// Check that the hex is in a unoccupied sector
 				if (game.findSector(hex).isOccupied()) {
 					System.out.println("Cet hexagone se situe dans un secteur déjà controlé par un joueur. Veuillez choisir un autre hexagone.");
-					game.getController().getView().addLogMessage("Cet hexagone se situe dans un secteur déjà controlé par un joueur. Veuillez choisir un autre hexagone.", this, "error");
+					game.log("Cet hexagone se situe dans un secteur déjà controlé par un joueur. Veuillez choisir un autre hexagone.", this, "error");
 					setupInitialFleet(); // Ask for input again
 					return;
 				}
@@ -78,7 +86,7 @@ public class Human extends Player {
 				this.createShip(hex);
 
 				System.out.println("Deux navires de " + this.getPseudo() + " ont été placés sur l'hexagone " + hex);
-				game.getController().getView().addLogMessage("Deux de vos navires ont été placés sur l'hexagone " + hex, this, "normal");
+				game.log("Deux de vos navires ont été placés sur l'hexagone " + hex, this, "normal");
 
 			} catch (InterruptedException e) {
 				e.printStackTrace();
@@ -91,10 +99,10 @@ public class Human extends Player {
 	 */
 	public void chooseOrderCommands() {
 		System.out.println(this.getPseudo() + ", veuillez choisir l'ordre des commandes.");
-		game.getController().getView().addLogMessage("Veuillez choisir l'ordre des commandes.", this, "normal");
+		game.log("Veuillez choisir l'ordre des commandes.", this, "normal");
 
 		// Display the command selection interface
-		game.getController().getView().showCommandSelection(this);
+		game.getController().showCommandSelection(this);
 
 		// Wait for the player to select the commands
 		synchronized (game.getController()) {
@@ -119,7 +127,7 @@ public class Human extends Player {
 		Sector sector = null;
 
 		System.out.println(this.getPseudo() + " choisit un secteur à scorer");
-		game.getController().getView().addLogMessage("Choisissez un secteur à scorer", this, "normal");
+		game.log("Choisissez un secteur à scorer", this, "normal");
 
 		while (!validChoice) {
 			try {
@@ -131,20 +139,20 @@ public class Human extends Player {
 
 			if (sector == null) {
 				System.out.println("Secteur invalide. Veuillez réessayer.");
-				game.getController().getView().addLogMessage("Secteur invalide. Veuillez réessayer.", this, "error");
+				game.log("Secteur invalide. Veuillez réessayer.", this, "error");
 			} else if (sector.isTriPrime()) {
 				System.out.println("Vous ne pouvez pas choisir le secteur Tri-Prime. Veuillez choisir un autre secteur.");
-				game.getController().getView().addLogMessage("Vous ne pouvez pas choisir le secteur Tri-Prime. Veuillez choisir un autre secteur.", this, "error");
+				game.log("Vous ne pouvez pas choisir le secteur Tri-Prime. Veuillez choisir un autre secteur.", this, "error");
 			} else if (scoredSectors.contains(sector)) {
 				System.out.println("Ce secteur a déjà été choisi. Veuillez choisir un autre secteur.");
-				game.getController().getView().addLogMessage("Ce secteur a déjà été choisi. Veuillez choisir un autre secteur.", this, "error");
+				game.log("Ce secteur a déjà été choisi. Veuillez choisir un autre secteur.", this, "error");
 			} else {
 				validChoice = true;
 			}
 		}
 		int sectorId = this.game.findSectorId(sector);
 		System.out.println(this.getPseudo() + " a choisi le secteur " + sectorId + " à scorer.");
-		game.getController().getView().addLogMessage("Vous avez choisi le secteur " + sectorId + ".", this, "normal");
+		game.log("Vous avez choisi le secteur " + sectorId + ".", this, "normal");
 		return sector;
 	}
 
@@ -155,17 +163,17 @@ public class Human extends Player {
 	public void doExpand(int efficiency) {
 
 		System.out.println(this.getPseudo() + " rajoute un vaisseau avec une efficacité de " + efficiency);
-		game.getController().getView().addLogMessage("Expand (efficacité : " + efficiency + ")", this, "normal");
+		game.log("Expand (efficacité : " + efficiency + ")", this, "normal");
 
 		boolean validMove = false;
 		Hexagon hex = new Hexagon(0,0);
 
-		List<Ship> possShips = Possibilities.getInstance(game).expand(this);
+		List<Ship> possShips = game.getPossibilities().expand(this);
 
 		for (int i = 0; i < efficiency; i++) {
 
 			if (possShips.isEmpty()) {
-				game.getController().getView().addLogMessage("Aucune expansion possible.", this, "normal");
+				game.log("Aucune expansion possible.", this, "normal");
 				break;
 			}
 
@@ -174,7 +182,7 @@ public class Human extends Player {
 			while (!validMove) {
 
 				System.out.println(this.getPseudo() + ", cliquez sur l'hexagone où vous souhaitez placer votre vaisseau.");
-				game.getController().getView().addLogMessage("Cliquez sur l'hexagone où vous souhaitez placer votre vaisseau.", this, "normal");
+				game.log("Cliquez sur l'hexagone où vous souhaitez placer votre vaisseau.", this, "normal");
 
 				try {
 					// Wait for the player to select the hexagon
@@ -186,7 +194,7 @@ public class Human extends Player {
 
 				if (!validMove) {
 					System.out.println("L'hexagone que vous avez choisi n'est pas valide. Veuillez réessayer");
-					game.getController().getView().addLogMessage("L'hexagone que vous avez choisi n'est pas valide. Veuillez réessayer", this, "error");
+					game.log("L'hexagone que vous avez choisi n'est pas valide. Veuillez réessayer", this, "error");
 				}
 			}
 
@@ -196,7 +204,7 @@ public class Human extends Player {
 			this.expand.setShip(usableShips.getFirst());
 			this.expand.execute();
 
-			possShips = Possibilities.getInstance(game).expand(this);
+			possShips = game.getPossibilities().expand(this);
 
 			this.game.triggerInterfaceUpdate();
 		}
@@ -209,7 +217,7 @@ public class Human extends Player {
 	public void doExplore(int efficiency) {
 
 		System.out.println(this.getPseudo() + " explore le plateau avec une efficacité de " + efficiency);
-		game.getController().getView().addLogMessage("Explore (efficacité : " + efficiency + ")", this, "normal");
+		game.log("Explore (efficacité : " + efficiency + ")", this, "normal");
 
 		Pair<List<Ship>, List<Hexagon>> move = new Pair<>(new ArrayList<>(), new ArrayList<>());
 
@@ -217,9 +225,10 @@ public class Human extends Player {
 		boolean validMove = false;
 		boolean newMove = true;
 
-		List<Pair<List<Ship>, List<Hexagon>>> possibleMoves = Possibilities.getInstance(game).explore(this);
+		// Only the existence of a move matters, so the generation stops at the first one
+		boolean canMove = game.getPossibilities().exploreCursor(this).hasNext();
 
-		while (movesDone < efficiency && newMove && !possibleMoves.isEmpty()) {
+		while (movesDone < efficiency && newMove && canMove) {
 
 			validMove = false;
 
@@ -230,7 +239,7 @@ public class Human extends Player {
 				while (!validInput) {
 					try {
 						System.out.println(this.getPseudo() + ", cliquez sur la flotte que vous souhaitez déplacer.");
-						game.getController().getView().addLogMessage("Cliquez sur la flotte que vous souhaitez déplacer.", this, "normal");
+						game.log("Cliquez sur la flotte que vous souhaitez déplacer.", this, "normal");
 
 						// Wait for the player to select the origin hexagon
 						Hexagon originHex = game.getController().waitForHexagonSelection();
@@ -238,14 +247,14 @@ public class Human extends Player {
 						// Verify that the hex contains the player's ships
 						if (originHex == null || originHex.getShips().isEmpty() || originHex.getOccupant() != this) {
 							System.out.println("Cet hexagone ne contient pas vos vaisseaux. Veuillez réessayer.");
-							game.getController().getView().addLogMessage("Cet hexagone ne contient pas vos vaisseaux. Veuillez réessayer.", this, "error");
+							game.log("Cet hexagone ne contient pas vos vaisseaux. Veuillez réessayer.", this, "error");
 							continue;
 						}
 						int numShips = 0;
 
 						if (originHex.getShips().size() > 1) {
 							System.out.println("Combien de vaisseaux voulez-vous déplacer depuis cet hexagone ?");
-							game.getController().getView().addLogMessage("Combien de vaisseaux voulez-vous déplacer depuis cet hexagone ?", this, "normal");
+							game.log("Combien de vaisseaux voulez-vous déplacer depuis cet hexagone ?", this, "normal");
 							numShips = this.game.getController().waitForUserInput();
 						} else {
 							numShips = 1;
@@ -253,20 +262,20 @@ public class Human extends Player {
 
 						if (numShips <= 0 || numShips > originHex.getShips().size()) {
 							System.out.println("Nombre de vaisseaux invalide. Veuillez réessayer.");
-							game.getController().getView().addLogMessage("Nombre de vaisseaux invalide. Veuillez réessayer.", this, "error");
+							game.log("Nombre de vaisseaux invalide. Veuillez réessayer.", this, "error");
 							continue;
 						}
 
 						List<Ship> fleet = new ArrayList<>(originHex.getShips().subList(0, numShips));
 
 						System.out.println(this.getPseudo() + ", cliquez sur l'hexagone de destination.");
-						game.getController().getView().addLogMessage("Cliquez sur l'hexagone de destination.", this, "normal");
+						game.log("Cliquez sur l'hexagone de destination.", this, "normal");
 
 						Hexagon target = game.getController().waitForHexagonSelection();
 
 						if (target == null) {
 							System.out.println("Destination invalide. Veuillez réessayer.");
-							game.getController().getView().addLogMessage("Destination invalide. Veuillez réessayer.", this, "error");
+							game.log("Destination invalide. Veuillez réessayer.", this, "error");
 							continue;
 						}
 
@@ -275,7 +284,7 @@ public class Human extends Player {
 						validInput = true;
 					} catch (Exception e) {
 						System.out.println("Entrée invalide. Veuillez réessayer.");
-						game.getController().getView().addLogMessage("Entrée invalide. Veuillez réessayer.", this, "error");
+						game.log("Entrée invalide. Veuillez réessayer.", this, "error");
 					}
 				}
 
@@ -283,7 +292,7 @@ public class Human extends Player {
 
 				if (!validMove) {
 					System.out.println("Le coup proposé n'est pas valide. Veuillez réessayer.");
-					game.getController().getView().addLogMessage("Le coup proposé n'est pas valide. Veuillez réessayer.", this, "error");
+					game.log("Le coup proposé n'est pas valide. Veuillez réessayer.", this, "error");
 				}
 			}
 
@@ -295,18 +304,18 @@ public class Human extends Player {
 
 			this.game.triggerInterfaceUpdate();
 
-			possibleMoves = Possibilities.getInstance(game).explore(this);
+			canMove = game.getPossibilities().exploreCursor(this).hasNext();
 
-			if (movesDone < efficiency && !possibleMoves.isEmpty()) {
+			if (movesDone < efficiency && canMove) {
 				boolean validResponse = false;
 				while (!validResponse) {
 					System.out.print("Voulez-vous déplacer une autre flotte ? (0/1) : ");
-					game.getController().getView().addLogMessage("Voulez-vous déplacer une autre flotte ? (0/1) : ", this, "normal");
+					game.log("Voulez-vous déplacer une autre flotte ? (0/1) : ", this, "normal");
 					try {
 						int input = this.game.getController().waitForUserInput();
 						if (input != 0 && input != 1) {
 							System.out.println("Entrée invalide. Veuillez entrer 0 ou 1");
-							game.getController().getView().addLogMessage("Entrée invalide. Veuillez entrer 0 ou 1", this, "error");
+							game.log("Entrée invalide. Veuillez entrer 0 ou 1", this, "error");
 							continue;
 						}
 
@@ -315,7 +324,7 @@ public class Human extends Player {
 
 					} catch (Exception e) {
 						System.out.println("Entrée invalide. Veuillez entrer 0 ou 1");
-						game.getController().getView().addLogMessage("Entrée invalide. Veuillez entrer 0 ou 1", this, "error");
+						game.log("Entrée invalide. Veuillez entrer 0 ou 1", this, "error");
 					}
 				}
 			} else {
@@ -331,7 +340,7 @@ public class Human extends Player {
 	public void doExterminate(int efficiency) {
 
 		System.out.println(this.getPseudo() + " extermine des systèmes avec une efficacité de " + efficiency);
-		game.getController().getView().addLogMessage("Exterminate (efficacité : " + efficiency + ")", this, "normal");
+		game.log("Exterminate (efficacité : " + efficiency + ")", this, "normal");
 
 		Pair<Set<Ship>, Hexagon> move = new Pair<>(new HashSet<>(), new Hexagon(0,0));
 		Set<Hexagon> targets = new HashSet<>();
@@ -342,9 +351,10 @@ public class Human extends Player {
 		boolean validInput = false;
 		int movesDone = 0;
 
-		List<Pair<Set<Ship>, Hexagon>> possibleMoves = Possibilities.getInstance(game).exterminate(this);
+		// Only the existence of a move matters, so the generation stops at the first one
+		boolean canMove = game.getPossibilities().exterminateCursor(this).hasNext();
 
-		while (movesDone < efficiency && newMove && !possibleMoves.isEmpty()) {
+		while (movesDone < efficiency && newMove && canMove) {
 
 			validMove = false;
 
@@ -356,19 +366,19 @@ public class Human extends Player {
 				while (!validInput) {
 					try {
 						System.out.println(this.getPseudo() + ", cliquez sur le système que vous voulez attaquer.");
-						game.getController().getView().addLogMessage("Cliquez sur le système que vous voulez attaquer.", this, "normal");
+						game.log("Cliquez sur le système que vous voulez attaquer.", this, "normal");
 
 						target = game.getController().waitForHexagonSelection();
 
 						if (target == null || target.getSystem() == null || target.getOccupant() == this) {
 							System.out.println("Système invalide.");
-							game.getController().getView().addLogMessage("Système invalide.", this, "error");
+							game.log("Système invalide.", this, "error");
 							continue;
 						}
 
 						if (targets.contains(target)) {
 							System.out.println("Vous avez déjà attaqué ce système.");
-							game.getController().getView().addLogMessage("Vous avez déjà attaqué ce système.", this, "error");
+							game.log("Vous avez déjà attaqué ce système.", this, "error");
 							continue;
 						}
 
@@ -378,24 +388,24 @@ public class Human extends Player {
 
 						if (possibleOrigins.size() == 0) {
 							System.out.println("Aucune flotte disponible pour attaquer ce système.");
-							game.getController().getView().addLogMessage("Aucune flotte disponible pour attaquer ce système.", this, "error");
+							game.log("Aucune flotte disponible pour attaquer ce système.", this, "error");
 							continue;
 
 						} else if (possibleOrigins.size() > 1) {
 
 							System.out.println(this.getPseudo() + ", combien de flottes voulez-vous utiliser ? : ");
-							game.getController().getView().addLogMessage("Combien de flottes voulez-vous utiliser ?", this, "normal");
+							game.log("Combien de flottes voulez-vous utiliser ?", this, "normal");
 							numFlottes = this.game.getController().waitForUserInput();
 
 							for (int k = 0; k < numFlottes; k++) {
 								System.out.println(this.getPseudo() + ", cliquez sur la flotte que vous voulez utiliser.");
-								game.getController().getView().addLogMessage("Cliquez sur la flotte que vous voulez utiliser.", this, "normal");
+								game.log("Cliquez sur la flotte que vous voulez utiliser.", this, "normal");
 
 								Hexagon fleetHex = game.getController().waitForHexagonSelection();
 
 								if (fleetHex == null || fleetHex.getShips().isEmpty() || fleetHex.getOccupant() != this) {
 									System.out.println("Flotte invalide.");
-									game.getController().getView().addLogMessage("Flotte invalide.", this, "error");
+									game.log("Flotte invalide.", this, "error");
 									continue;
 								}
 
@@ -404,7 +414,7 @@ public class Human extends Player {
 												.toList();
 
 								System.out.println("Combien de vaisseaux situés sur " + fleetHex + " voulez-vous utiliser ?");
-								game.getController().getView().addLogMessage("Combien de vaisseaux situés sur " + fleetHex + " voulez-vous utiliser ?", this, "normal");
+								game.log("Combien de vaisseaux situés sur " + fleetHex + " voulez-vous utiliser ?", this, "normal");
 								int numShips = 1;
 								if (usableShips.size() > 1) {
 									numShips = this.game.getController().waitForUserInput();
@@ -412,7 +422,7 @@ public class Human extends Player {
 
 								if (numShips > usableShips.size()) {
 									System.out.println("Vous ne disposez pas d'autant de vaisseaux capables d'exterminer.");
-									game.getController().getView().addLogMessage("Vous ne disposez pas d'autant de vaisseaux capables d'exterminer.", this, "error");
+									game.log("Vous ne disposez pas d'autant de vaisseaux capables d'exterminer.", this, "error");
 									continue;
 								}
 
@@ -428,7 +438,7 @@ public class Human extends Player {
 									.toList();
 
 							System.out.println("Combien de vaisseaux situés sur " + possibleOrigins.get(0) + " voulez-vous utiliser ?");
-							game.getController().getView().addLogMessage("Combien de vaisseaux situés sur " + possibleOrigins.get(0) + " voulez-vous utiliser ?", this, "normal");
+							game.log("Combien de vaisseaux situés sur " + possibleOrigins.get(0) + " voulez-vous utiliser ?", this, "normal");
 							int numShips = 1;
 							if (usableShips.size() > 1) {
 								numShips = this.game.getController().waitForUserInput();
@@ -436,7 +446,7 @@ public class Human extends Player {
 
 							if (numShips > usableShips.size()) {
 								System.out.println("Vous ne disposez pas d'autant de vaisseaux capables d'exterminer.");
-								game.getController().getView().addLogMessage("Vous ne disposez pas d'autant de vaisseaux capables d'exterminer.", this, "error");
+								game.log("Vous ne disposez pas d'autant de vaisseaux capables d'exterminer.", this, "error");
 								continue;
 							}
 
@@ -450,7 +460,7 @@ public class Human extends Player {
 
 						if (!validMove) {
 							System.out.println("Le coup que vous avez essayé de jouer n'est pas valide. Veuillez réessayer");
-							game.getController().getView().addLogMessage("Le coup que vous avez essayé de jouer n'est pas valide. Veuillez réessayer", this, "error");
+							game.log("Le coup que vous avez essayé de jouer n'est pas valide. Veuillez réessayer", this, "error");
 
 							//Debugger.displayAllExterminateMoves(this, this.game);
 						}
@@ -458,7 +468,7 @@ public class Human extends Player {
 						validInput = true;
 					} catch (Exception e) {
 						System.out.println("Entrée invalide");
-						game.getController().getView().addLogMessage("Entrée invalide", this, "error");
+						game.log("Entrée invalide", this, "error");
 					}
 				}
 			}
@@ -473,18 +483,18 @@ public class Human extends Player {
 
 			movesDone++;
 
-			possibleMoves = Possibilities.getInstance(game).exterminate(this);
+			canMove = game.getPossibilities().exterminateCursor(this).hasNext();
 
-			if (movesDone < efficiency && !possibleMoves.isEmpty()) {
+			if (movesDone < efficiency && canMove) {
 				validInput = false;
 				while (!validInput) {
 					try {
 						System.out.print("Voulez-vous attaquer un autre système ? (0/1) : ");
-						game.getController().getView().addLogMessage("Voulez-vous attaquer un autre système ? (0/1) : ", this, "normal");
+						game.log("Voulez-vous attaquer un autre système ? (0/1) : ", this, "normal");
 						int input = this.game.getController().waitForUserInput();
 						if (input != 0 && input != 1) {
 							System.out.println("Entrée invalide. Veuillez entrer 0 ou 1");
-							game.getController().getView().addLogMessage("Entrée invalide. Veuillez entrer 0 ou 1", this, "error");
+							game.log("Entrée invalide. Veuillez entrer 0 ou 1", this, "error");
 							continue;
 						}
 
@@ -493,7 +503,7 @@ public class Human extends Player {
 
 					} catch (Exception e) {
 						System.out.println("Entrée invalide. Veuillez entrer 0 ou 1");
-						game.getController().getView().addLogMessage("Entrée invalide. Veuillez entrer 0 ou 1", this, "error");
+						game.log("Entrée invalide. Veuillez entrer 0 ou 1", this, "error");
 					}
 				}
 			} else {
@@ -0,0 +1,482 @@
+package pimperium.players;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+
+import pimperium.elements.Sector;
+import pimperium.elements.Ship;
+import pimperium.models.Game;
+import pimperium.models.GameSnapshot;
+import pimperium.utils.Colors;
+import pimperium.utils.Dominance;
+import pimperium.utils.MoveBuffer;
+import pimperium.utils.Moves;
+
+/**
+ * Bot player choosing its moves and sectors to score by Monte-Carlo Tree Search, and its orders of commands
+ * with an OrderSolver. Each decision is the root of a search whose children are the candidate choices, selected with UCB1: a playout
+ * forks the game, applies the candidate, then plays the rest of the game with random bots standing for every player.
+ * The playouts are shared between independent workers (root parallelization), whose statistics are summed
+ * to choose the most visited candidate. The search is anytime: it stops when the budget of the decision is spent
+ */
+public class MctsBot extends Bot {
+
+    /**
+     * Default time given to each decision, in milliseconds
+     */
+    public static final long DEFAULT_TIME_BUDGET = 200;
+    /**
+     * Exploration constant of UCB1, for rewards between 0 and 1
+     */
+    private static final double EXPLORATION = 0.7;
+    /**
+     * Maximum number of candidates searched for a move, drawn at random when more moves are possible
+     */
+    private static final int MAX_CANDIDATES = 32;
+    /**
+     * The choice of the orders keeps 1 / SOLVE_SHARE of its time budget to solve the table once the outcomes are evaluated
+     */
+    private static final int SOLVE_SHARE = 10;
+    /**
+     * Difference of score for which the margin part of the reward is maximal
+     */
+    private static final double MARGIN_SCALE = 30;
+
+    /**
+     * Number of workers running playouts in parallel
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Play a candidate of a decision in a fork of the game, then the rest of the game
+     */
+    @FunctionalInterface
+    private interface Playout {
+        void play(Game fork, Player me, int candidate);
+    }
+
+    /**
+     * Statistics of the candidates gathered by a worker
+     */
+    private static final class Stats {
+        private final int[] visits;
+        private final double[] rewards;
+
+        private Stats(int numCandidates) {
+            this.visits = new int[numCandidates];
+            this.rewards = new double[numCandidates];
+        }
+    }
+
+    public MctsBot(Game game, Colors color) {
+        super(game, color);
+        this.budget = Budget.ofTime(DEFAULT_TIME_BUDGET);
+    }
+
+    protected Player newInstance(Game game) {
+        MctsBot copy = new MctsBot(game, this.color);
+        copy.threads = this.threads;
+        return copy;
+    }
+
+    /**
+     * Set the budget of each decision, whose nodes are the playouts. The search stops as soon as one of the limits
+     * is spent
+     * @param budget The budget of each decision, which must have a time or a playout limit
+     */
+    public void setBudget(Budget budget) {
+        if (budget.isUnlimited()) {
+            throw new IllegalArgumentException("The search needs a time or a playout budget.");
+        }
+        super.setBudget(budget);
+    }
+
+    /**
+     * Set the number of workers running playouts in parallel
+     * @param threads The number of workers, the number of cores by default
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Create the player standing for a player of the original game in a playout, which plays at random
+     */
+    private static Player rolloutPlayer(Player player, Game fork) {
+        return player.copyAs(new RandomBot(fork, player.getColor()));
+    }
+
+    private static Player byId(Game game, int id) {
+        for (Player player : game.getPlayers()) {
+            if (player.getId() == id) return player;
+        }
+        throw new IllegalArgumentException("Aucun joueur d'id " + id);
+    }
+
+    /**
+     * Evaluate the end of a playout
+     * @param fork The game played until its end
+     * @param id The id of the player the playout is evaluated for
+     * @return The reward between 0 and 1: mostly whether the player won, plus a small part for its margin
+     *         to break ties between candidates that always win or always lose
+     */
+    private static double reward(Game fork, int id) {
+        int score = 0;
+        int bestOther = Integer.MIN_VALUE;
+        for (Player player : fork.getPlayers()) {
+            if (player.getId() == id) {
+                score = player.getScore();
+            } else {
+                bestOther = Math.max(bestOther, player.getScore());
+            }
+        }
+        double win = score > bestOther ? 1 : score == bestOther ? 0.5 : 0;
+        double margin = Math.max(-1, Math.min(1, (score - bestOther) / MARGIN_SCALE));
+        return 0.9 * win + 0.05 * (1 + margin);
+    }
+
+    /**
+     * Play the rest of the round from a given action in a fork, then the rest of the game
+     */
+    private static void finishGame(Game fork, int roundStep, int next) {
+        fork.playRoundFrom(roundStep, next);
+        fork.endRound();
+        fork.playToEnd();
+    }
+
+    /**
+     * Choose one of the candidates of a decision by running playouts on every worker
+     * @param numCandidates The number of candidates
+     * @param playout The playout of a candidate
+     * @return The index of the most visited candidate
+     */
+    private int search(int numCandidates, Playout playout) {
+
+        if (numCandidates == 1) return 0;
+
+        Decision decision = this.startDecision();
+        long deadline = decision.getDeadline();
+        long playoutBudget = this.getBudget().getNodes();
+        GameSnapshot snapshot = this.game.snapshot();
+
+        List<Callable<Stats>> workers = new ArrayList<>(this.threads);
+        for (int w = 0; w < this.threads; w++) {
+            long seed = this.getRandom().nextLong();
+            int quota = playoutBudget > 0 ? (int) ((playoutBudget + w) / this.threads) : Integer.MAX_VALUE;
+            workers.add(() -> this.runWorker(snapshot, numCandidates, playout, seed, quota, deadline));
+        }
+
+        Stats total = new Stats(numCandidates);
+        for (Stats stats : SearchWorkers.invokeAll(workers)) {
+            for (int c = 0; c < numCandidates; c++) {
+                total.visits[c] += stats.visits[c];
+                total.rewards[c] += stats.rewards[c];
+            }
+        }
+
+        // The most visited candidate, the best mean breaking the ties
+        int best = 0;
+        for (int c = 1; c < numCandidates; c++) {
+            int visits = total.visits[c];
+            if (visits > total.visits[best]
+                    || visits == total.visits[best] && visits > 0 && total.rewards[c] / visits > total.rewards[best] / visits) {
+                best = c;
+            }
+        }
+
+        // Every candidate has been played at least as many times as the number of complete passes
+        decision.addNodes(Arrays.stream(total.visits).sum());
+        decision.setDepth(Arrays.stream(total.visits).min().orElse(0));
+        decision.setCutOff();
+        this.endDecision(decision);
+
+        long nanos = decision.getElapsedNanos();
+        game.print(this.getPseudo() + " : " + decision.getNodes() + " simulations en " + nanos / 1_000_000 + " ms ("
+                + Math.round(decision.getNodes() * 1e9 / nanos) + " simulations/s)");
+        return best;
+    }
+
+    /**
+     * Run playouts until the budget of the worker is spent, choosing the candidates with UCB1
+     */
+    private Stats runWorker(GameSnapshot snapshot, int numCandidates, Playout playout, long seed, int quota, long deadline) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Stats stats = new Stats(numCandidates);
+        for (int n = 0; n < quota && System.nanoTime() < deadline; n++) {
+
+            // Try every candidate once, then the one with the best upper confidence bound
+            int candidate = n;
+            if (n >= numCandidates) {
+                double bestBound = Double.NEGATIVE_INFINITY;
+                double log = Math.log(n);
+                for (int c = 0; c < numCandidates; c++) {
+                    double bound = stats.rewards[c] / stats.visits[c] + EXPLORATION * Math.sqrt(log / stats.visits[c]);
+                    if (bound > bestBound) {
+                        bestBound = bound;
+                        candidate = c;
+                    }
+                }
+            }
+
+            Game fork = snapshot.fork(random.nextLong(), MctsBot::rolloutPlayer);
+            playout.play(fork, byId(fork, this.id), candidate);
+            stats.visits[candidate]++;
+            stats.rewards[candidate] += reward(fork, this.id);
+        }
+        return stats;
+    }
+
+    /**
+     * Keep at most MAX_CANDIDATES of the possible moves, drawn at random
+     * @param moves The possible moves
+     * @return The candidates
+     */
+    private long[] candidates(MoveBuffer moves) {
+        long[] candidates = new long[moves.size()];
+        for (int m = 0; m < candidates.length; m++) {
+            candidates[m] = moves.get(m);
+        }
+        if (candidates.length <= MAX_CANDIDATES) return candidates;
+        // Partial Fisher-Yates shuffle of the first MAX_CANDIDATES moves
+        for (int m = 0; m < MAX_CANDIDATES; m++) {
+            int k = m + this.getRandom().nextInt(candidates.length - m);
+            long move = candidates[k];
+            candidates[k] = candidates[m];
+            candidates[m] = move;
+        }
+        return Arrays.copyOf(candidates, MAX_CANDIDATES);
+    }
+
+    /**
+     * Get the position of the bot in the order of the players of a round step
+     */
+    private int positionInStep(int roundStep) {
+        Player[] order = game.getOrderPlayers()[roundStep];
+        for (int j = 0; j < order.length; j++) {
+            if (order[j] == this) return j;
+        }
+        throw new IllegalStateException(this.getPseudo() + " ne joue pas à cette étape.");
+    }
+
+    /**
+     * Choose the order of commands for the round to go. The orders of the opponents are hidden until the round starts,
+     * so the order is drawn from the mixed strategy of the bot in the solved game of the joint orders
+     */
+    public void chooseOrderCommands() {
+        Decision decision = this.startDecision();
+        OrderSolver solver = new OrderSolver(this.game, this.threads);
+        long timeBudget = this.getBudget().getTimeMillis();
+        long evaluationTime = timeBudget > 0 ? Math.max(1, timeBudget - timeBudget / SOLVE_SHARE) : 0;
+        solver.evaluate(evaluationTime, this.getBudget().getNodes(), this.getRandom().nextLong());
+        double[] strategy = solver.solve()[Arrays.asList(game.getPlayers()).indexOf(this)];
+        int order = OrderSolver.sample(strategy, this.getRandom());
+
+        decision.addNodes(solver.getEvaluations());
+        decision.setDepth(solver.getCompletePasses());
+        decision.setCutOff();
+        this.endDecision(decision);
+        game.print(this.getPseudo() + " : " + solver.getEvaluations() + " manches évaluées en " + decision.getElapsedNanos() / 1_000_000
+                + " ms, ordre " + Arrays.toString(OrderSolver.order(order)) + " joué avec une probabilité de "
+                + Math.round(100 * strategy[order]) + " %");
+        this.setOrderCommands(OrderSolver.order(order));
+    }
+
+    /**
+     * Choose the sector to score by playing the rest of the scoring and of the game for each available sector
+     * @param scoredSectors The set of sectors that have already been chosen by other players this round (a sector can't be chosen twice)
+     * @param sectors The full list of sectors
+     * @return The sector chosen to score
+     */
+    public Sector chooseSectorToScore(Set<Sector> scoredSectors, Sector[] sectors) {
+
+        List<Sector> availableSectors = new ArrayList<>();
+        for (Sector sector : sectors) {
+            if (!scoredSectors.contains(sector) && !sector.isTriPrime()) availableSectors.add(sector);
+        }
+        if (availableSectors.isEmpty()) {
+            return super.chooseSectorToScore(scoredSectors, sectors);
+        }
+
+        // The players choose in the play order, then the controller of Tri-Prime chooses once more
+        int next = Game.NB_PLAYERS + 1;
+        if (scoredSectors.size() < Game.NB_PLAYERS) {
+            next = Arrays.asList(game.getPlayers()).indexOf(this) + 1;
+        }
+        int nextChooser = next;
+
+        int best = this.search(availableSectors.size(), (fork, me, c) -> {
+            Sector[] forkSectors = fork.getSectors();
+            Set<Sector> chosen = new HashSet<>();
+            for (Sector sector : scoredSectors) {
+                chosen.add(forkSectors[sector.getId()]);
+            }
+            chosen.add(forkSectors[availableSectors.get(c).getId()]);
+            fork.finishScoring(chosen, nextChooser);
+            fork.endRound();
+            fork.playToEnd();
+        });
+
+        Sector chosenSector = availableSectors.get(best);
+        game.print(this.getPseudo() + " a choisi le secteur " + game.findSectorId(chosenSector) + " à scorer.");
+        game.log(" A choisi le secteur " + game.findSectorId(chosenSector) + ".", this, "normal");
+        return chosenSector;
+    }
+
+    /**
+     * Choose and perform Expand
+     * @param efficiency Efficiency of the action
+     */
+    public void doExpand(int efficiency) {
+
+        game.print(this.getPseudo() + " s'étend");
+        game.log("Expand (efficacité : " + efficiency + ")", this, "normal");
+
+        int roundStep = game.getRoundStep();
+        int next = this.positionInStep(roundStep) + 1;
+
+        for (int i = 0; i < efficiency; i++) {
+
+            // The ships of a hexagon expand the same way, so only the first one of each hexagon is a candidate
+            MoveBuffer possibleMoves = this.possibleMoves();
+            possibleMoves.clear();
+            possibilities.expandCursor(this).forEachRemaining((long move) -> {
+                if (Moves.rank(move) == 0) possibleMoves.add(move);
+            });
+
+            // Verifies that the player can do at least a move
+            if (possibleMoves.isEmpty()) {
+                game.print("Aucune expansion possible.");
+                game.log("Aucune expansion possible.", this, "normal");
+                return;
+            }
+
+            long[] candidates = this.candidates(possibleMoves);
+            int remaining = efficiency - i - 1;
+            int best = this.search(candidates.length, (fork, me, c) -> {
+                me.expand.setShip(Moves.decodeExpand(candidates[c], fork.getBoard()));
+                me.expand.execute();
+                me.doExpand(remaining);
+                finishGame(fork, roundStep, next);
+            });
+
+            Ship ship = Moves.decodeExpand(candidates[best], game.getBoard());
+            this.expand.setShip(ship);
+            this.expand.execute();
+
+            game.log("Vaisseau ajouté en " + ship.getPosition(), this, "normal");
+
+            this.game.triggerInterfaceUpdate();
+
+            this.game.pause();
+        }
+
+    }
+
+    /**
+     * Choose and perform Explore
+     * @param efficiency Efficiency of the action
+     */
+    public void doExplore(int efficiency) {
+
+        game.print(this.getPseudo() + " explore with efficiency " + efficiency);
+        game.log("Explore (efficacité : " + efficiency + ")", this, "normal");
+
+        int roundStep = game.getRoundStep();
+        int next = this.positionInStep(roundStep) + 1;
+
+        for (int i = 0; i < efficiency; i++) {
+
+            MoveBuffer possibleMoves = this.possibleMoves();
+            possibilities.explore(this, possibleMoves);
+
+            // Verifies that the player can do at least a move
+            if (possibleMoves.isEmpty()) {
+                game.print("Aucun mouvement d'exploration possible.");
+                game.log("Aucune exploration possible.", this, "normal");
+                return;
+            }
+
+            long[] candidates = this.candidates(possibleMoves);
+            int remaining = efficiency - i - 1;
+            int best = this.search(candidates.length, (fork, me, c) -> {
+                me.explore.setMove(candidates[c], fork.getBoard());
+                me.explore.execute();
+                me.doExplore(remaining);
+                finishGame(fork, roundStep, next);
+            });
+
+            this.explore.setMove(candidates[best], game.getBoard());
+            this.explore.execute();
+
+            int fleetSize = this.explore.getShips().size();
+            if (fleetSize > 1) {
+                game.log("Flotte de " + fleetSize + " vaisseaux déplacés en " + this.explore.getTargets(), this, "normal");
+            } else {
+                game.log("Un vaisseau déplacé en " + this.explore.getTargets(), this, "normal");
+            }
+
+            this.game.triggerInterfaceUpdate();
+
+            this.game.pause();
+        }
+
+    }
+
+    /**
+     * Choose and perform Exterminate. Only the attacks sending all the usable ships or just enough ships to win
+     * are searched, the other distributions being dominated by one of them
+     * @param efficiency Efficiency of the action
+     */
+    public void doExterminate(int efficiency) {
+
+        game.print(this.getPseudo() + " extermine");
+        game.log("Exterminate (efficacité : " + efficiency + ")", this, "normal");
+
+        int roundStep = game.getRoundStep();
+        int next = this.positionInStep(roundStep) + 1;
+
+        for (int i = 0; i < efficiency; i++) {
+
+            MoveBuffer possibleMoves = this.possibleMoves();
+            MoveBuffer winningMoves = this.bestMoves();
+            possibilities.exterminate(this, possibleMoves, Dominance.MAXIMAL);
+            possibilities.exterminate(this, winningMoves, Dominance.MINIMAL_WINNING);
+            for (int m = 0; m < winningMoves.size(); m++) {
+                long move = winningMoves.get(m);
+                if (!possibleMoves.contains(move)) possibleMoves.add(move);
+            }
+
+            // Verifies that the player can do at least a move
+            if (possibleMoves.isEmpty()) {
+                game.print("Aucun mouvement d'extermination possible.");
+                game.log("Aucune extermination possible", this, "normal");
+                return;
+            }
+
+            long[] candidates = this.candidates(possibleMoves);
+            int remaining = efficiency - i - 1;
+            int best = this.search(candidates.length, (fork, me, c) -> {
+                me.exterminate.setMove(candidates[c], fork.getBoard());
+                me.exterminate.execute();
+                me.doExterminate(remaining);
+                finishGame(fork, roundStep, next);
+            });
+
+            this.exterminate.setMove(candidates[best], game.getBoard());
+            this.exterminate.execute();
+
+            int fleetSize = this.exterminate.getShips().size();
+            if (fleetSize > 1) {
+                game.log("Flotte de " + fleetSize + " vaisseaux exterminent en " + this.exterminate.getTarget(), this, "normal");
+            } else {
+                game.log("Un vaisseau extermine en " + this.exterminate.getTarget(), this, "normal");
+            }
+
+            this.game.triggerInterfaceUpdate();
+
+            this.game.pause();
+        }
+
+    }
+
+}
@@ -2,50 +2,49 @@ package pimperium.players;
 
 import java.util.*;
 
-import javafx.util.Pair;
-
 import pimperium.elements.Hexagon;
 import pimperium.elements.Ship;
+import pimperium.models.Board;
+import pimperium.models.DistanceField;
 import pimperium.models.Game;
 import pimperium.utils.Colors;
+import pimperium.utils.MoveBuffer;
+import pimperium.utils.Moves;
 
 /**
  * Bot player with an offensive strategy
  */
 public class OffensiveBot extends Bot {
 
+    /**
+     * Pinned to the class of the older saves, so that they can still be loaded
+     */
+    private static final long serialVersionUID = -8919739539789010167L;
+
+    /**
+     * Distance of each hexagon to the nearest enemy, computed once per decision
+     */
+    private transient DistanceField enemyDistances;
+
     public OffensiveBot(Game game, Colors color) {
         super(game, color);
     }
 
+    protected Player newInstance(Game game) {
+        return new OffensiveBot(game, this.color);
+    }
+
     /**
-     * Calculate the distance to the nearest enemy of a given hexagon
-     * @param hexagon The hexagon considered
-     * @return The distance (in hexagons) of the closest controlled hexagon
+     * Update the distance of each hexagon to the nearest enemy before scoring the moves of a decision
+     * @return The distances, farther than any hex when no enemy is left on the map
      */
-    private int distanceToNearestEnemy(Hexagon hexagon) {
-
-        int distance = 0;
-
-        if (!(hexagon.getOccupant() != null && hexagon.getOccupant() != this)) {
-            boolean enemyFound = false;
-            Set<Hexagon> hexsConsidered = new HashSet<>();
-            hexsConsidered.add(hexagon);
-            // Increase the distance by 1 hex while we don't find a hex controlled by an anemy
-            while (!enemyFound) {
-                distance ++;
-                Set<Hexagon> newHexs = new HashSet<>();
-                for (Hexagon hex : hexsConsidered) {
-                    newHexs.addAll(new HashSet<>(hex.getNeighbours()));
-                }
-                hexsConsidered.addAll(new HashSet<>(newHexs));
-                for (Hexagon hex : hexsConsidered) {
-                    if (hex.getOccupant() != null && hex.getOccupant() != this) enemyFound = true;
-                }
-            }
+    private DistanceField updateEnemyDistances() {
+        Board board = game.getBoard();
+        if (this.enemyDistances == null || !this.enemyDistances.isFor(board.getTopology())) {
+            this.enemyDistances = new DistanceField(board.getTopology());
         }
-
-        return distance;
+        this.enemyDistances.update(board.getEnemyMask(this));
+        return this.enemyDistances;
     }
 
     /**
@@ -54,7 +53,7 @@ public class OffensiveBot extends Bot {
      * @return The score of the hexagon considered
      */
     private int calculateHexScore(Hexagon hexagon) {
-        return hexagon.getSystemLevel() - distanceToNearestEnemy(hexagon);
+        return hexagon.getSystemLevel() - this.enemyDistances.get(hexagon.getIndex());
     }
 
     /**
@@ -67,15 +66,17 @@ public class OffensiveBot extends Bot {
         // Current best options
         List<Ship> bestShips = new ArrayList<>();
         int bestScore = -100;
+        updateEnemyDistances();
+        Decision decision = this.startDecision();
 
-        for (Ship ship : possShips) {
+        for (int k = 0; k < possShips.size(); k++) {
 
+            if (!decision.next()) break;
+            Ship ship = this.drawCandidate(possShips, k);
             int score = calculateHexScore(ship.getPosition());
 
-            // Penalty if the ship may be removed while sustaining
-            if (ship.getPosition().getShips().size() >= ship.getPosition().getSystemLevel() + 1) {
-                score -= 2 * (ship.getPosition().getShips().size()- ship.getPosition().getSystemLevel());
-            }
+            // Penalty if the new ship may be removed while sustaining
+            score -= 2 * game.getBoard().getOverload(ship.getPosition().getIndex(), 1);
 
 
             // This ship is better than all the ones currently in bestShips
@@ -90,46 +91,83 @@ public class OffensiveBot extends Bot {
             }
 
         }
-
-        Random random = new Random();
+        if (!decision.isCutOff()) decision.completeIteration();
+        this.endDecision(decision);
 
         if (!bestShips.isEmpty()) {
-            return bestShips.get(random.nextInt(bestShips.size()));
+            return bestShips.get(this.getRandom().nextInt(bestShips.size()));
         } else {
-            return possShips.get(random.nextInt(possShips.size()));
+            return possShips.get(this.getRandom().nextInt(possShips.size()));
         }
 
 
     }
 
     /**
-     * Strategically choose which action to perform for Explore
-     * @param possibleMoves List of possible Explore moves
-     * @return The chosen move
+     * Score the move of a single ship during an Explore
+     * @param origin The hexagon the ship leaves
+     * @param destination The hexagon the ship reaches
+     * @return The score of the ship move
      */
-    public Pair<List<Ship>, List<Hexagon>> chooseExplore(List<Pair<List<Ship>, List<Hexagon>>> possibleMoves) {
+    private int calculateShipMoveScore(Hexagon origin, Hexagon destination) {
+        // Add the points of the destination and subtract the ones from the origin
+        int score = calculateHexScore(destination) - calculateHexScore(origin);
+        // Bonus for an exploration of a new hex, malus for a hex already controlled
+        return score + (destination.getOccupant() == this ? -1:1);
+    }
 
-        int bestScore = -100;
-        List<Pair<List<Ship>, List<Hexagon>>> bestMoves = new ArrayList<>();
+    /**
+     * Calculate the penalty of sending ships to a hexagon
+     * @param hex The destination of the ships
+     * @param shipsGoing The number of ships ending their move on the hexagon
+     * @return The number of ships that might be removed after sustaining
+     */
+    private int calculateOverloadPenalty(Hexagon hex, int shipsGoing) {
+        return game.getBoard().getOverload(hex.getIndex(), shipsGoing);
+    }
 
-        for (Pair<List<Ship>, List<Hexagon>> move : possibleMoves) {
+    /**
+     * Strategically choose which action to perform for Explore
+     * @param possibleMoves The possible Explore moves, packed
+     * @return The chosen packed move
+     */
+    public long chooseExplore(MoveBuffer possibleMoves) {
 
-            int score = 0;
-            for (int i = 0; i < move.getKey().size(); i++) {
-                // Add the points of the destination and subtract the ones from the origin
-                score += calculateHexScore(move.getValue().get(i));
-                score -= calculateHexScore(move.getKey().get(i).getPosition());
-                // Bonus for an exploration of a new hex, malus for a hex already controlled
-                score += (move.getValue().get(i).getOccupant() == this ? -1:1);
-            }
+        Board board = game.getBoard();
+        int bestScore = -100;
+        MoveBuffer bestMoves = this.bestMoves();
+        bestMoves.clear();
+        updateEnemyDistances();
+        Decision decision = this.startDecision();
+
+        for (int m = 0; m < possibleMoves.size(); m++) {
+
+            if (!decision.next()) break;
+            long move = this.drawCandidate(possibleMoves, m);
+            Hexagon origin = board.getHex(Moves.origin(move));
+            Hexagon target1 = board.getHex(Moves.target1(move));
+            int numShips = Moves.numShips(move);
+
+            int score;
+            if (!Moves.isDistance2(move)) {
+                score = numShips * calculateShipMoveScore(origin, target1);
+                score -= calculateOverloadPenalty(target1, numShips);
+            } else {
+                Hexagon target2 = board.getHex(Moves.target2(move));
+                int pickedUp = target1.getShips().size();
+                int dropped = Moves.dropped(move);
+                // The dropped ships are the last of the extended fleet: the picked up ones first, then the ones from the origin
+                int droppedPickedUp = Math.min(dropped, pickedUp);
+                int droppedOrigin = dropped - droppedPickedUp;
+
+                score = droppedOrigin * calculateShipMoveScore(origin, target1)
+                        + droppedPickedUp * calculateShipMoveScore(target1, target1)
+                        + (numShips - droppedOrigin) * calculateShipMoveScore(origin, target2)
+                        + (pickedUp - droppedPickedUp) * calculateShipMoveScore(target1, target2);
 
-            Set<Hexagon> targets = new HashSet<>(move.getValue());
-            for (Hexagon hex : targets) {
-                int shipsGoing = Collections.frequency(move.getValue(), hex);
                 // Penalty if some ships might be removed after sustaining
-                if (hex.getShips().size() + shipsGoing > hex.getSystemLevel() + 1) {
-                    score -= hex.getShips().size() + shipsGoing - (hex.getSystemLevel() + 1);
-                }
+                if (dropped > 0) score -= calculateOverloadPenalty(target1, dropped);
+                score -= calculateOverloadPenalty(target2, numShips + pickedUp - dropped);
             }
 
             if (score > bestScore) {
@@ -141,26 +179,33 @@ public class OffensiveBot extends Bot {
             }
 
         }
+        if (!decision.isCutOff()) decision.completeIteration();
+        this.endDecision(decision);
 
-        Random random = new Random();
-
-        return  bestMoves.get(random.nextInt(bestMoves.size()));
+        return bestMoves.get(this.getRandom().nextInt(bestMoves.size()));
 
     }
 
     /**
      * Strategically choose which action to perform for Exterminate
-     * @param possibleMoves List of possible Exterminate moves
-     * @return The chosen move
+     * @param possibleMoves The possible Exterminate moves, packed
+     * @return The chosen packed move
      */
-    public Pair<Set<Ship>, Hexagon> chooseExterminate(List<Pair<Set<Ship>, Hexagon>> possibleMoves) {
+    public long chooseExterminate(MoveBuffer possibleMoves) {
 
-        List<Pair<Set<Ship>, Hexagon>> bestMoves = new ArrayList<>();
+        Board board = game.getBoard();
+        MoveBuffer bestMoves = this.bestMoves();
+        bestMoves.clear();
         int bestScore = -100;
-
-        for (Pair<Set<Ship>, Hexagon> move : possibleMoves) {
-            int score = calculateHexScore(move.getValue());
-            int shipsDestroyed = Math.min(move.getKey().size(), move.getValue().getShips().size());
+        updateEnemyDistances();
+        Decision decision = this.startDecision();
+
+        for (int m = 0; m < possibleMoves.size(); m++) {
+            if (!decision.next()) break;
+            long move = this.drawCandidate(possibleMoves, m);
+            Hexagon target = board.getHex(Moves.target(move));
+            int score = calculateHexScore(target);
+            int shipsDestroyed = Math.min(Moves.totalCount(move), target.getShips().size());
             score += shipsDestroyed;
 
             if (score > bestScore) {
@@ -171,10 +216,10 @@ public class OffensiveBot extends Bot {
                 bestMoves.add(move);
             }
         }
+        if (!decision.isCutOff()) decision.completeIteration();
+        this.endDecision(decision);
 
-        Random random = new Random();
-
-        return bestMoves.get(random.nextInt(bestMoves.size()));
+        return bestMoves.get(this.getRandom().nextInt(bestMoves.size()));
     }
 
     /**
@@ -183,8 +228,8 @@ public class OffensiveBot extends Bot {
      */
     public void doExpand(int efficiency) {
 
-        System.out.println(this.getPseudo() + " s'étend");
-        game.getController().getView().addLogMessage("Expand (efficacité : " + efficiency + ")", this, "normal");
+        game.print(this.getPseudo() + " s'étend");
+        game.log("Expand (efficacité : " + efficiency + ")", this, "normal");
 
         for (int i = 0; i < efficiency; i++) {
 
@@ -194,8 +239,8 @@ public class OffensiveBot extends Bot {
 
             // Verifies that the player can do at least a move
             if (possShips.isEmpty()) {
-                System.out.println("Aucune expansion possible.");
-                game.getController().getView().addLogMessage("Aucune expansion possible.", this, "normal");
+                game.print("Aucune expansion possible.");
+                game.log("Aucune expansion possible.", this, "normal");
                 return;
             }
 
@@ -206,15 +251,11 @@ public class OffensiveBot extends Bot {
             this.expand.setShip(ship);
             this.expand.execute();
 
-            game.getController().getView().addLogMessage("Vaisseau ajouté en " + expandShips.get(0).getPosition(), this, "normal");
+            game.log("Vaisseau ajouté en " + expandShips.get(0).getPosition(), this, "normal");
 
             this.game.triggerInterfaceUpdate();
 
-            try {
-                Thread.sleep(Game.DELAY);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            this.game.pause();
         }
 
     }
@@ -225,41 +266,37 @@ public class OffensiveBot extends Bot {
      */
     public void doExplore(int efficiency) {
 
-        System.out.println(this.getPseudo() + " explore with efficiency " + efficiency);
-        game.getController().getView().addLogMessage("Explore (efficacité : " + efficiency + ")", this, "normal");
+        game.print(this.getPseudo() + " explore with efficiency " + efficiency);
+        game.log("Explore (efficacité : " + efficiency + ")", this, "normal");
 
         for (int i = 0; i < efficiency; i++) {
 
-            List<Pair<List<Ship>, List<Hexagon>>> possibleMoves = possibilities.explore(this);
+            MoveBuffer possibleMoves = this.possibleMoves();
+            possibilities.explore(this, possibleMoves);
 
             // Verifies that the player can do at least a move
             if (possibleMoves.isEmpty()) {
-                System.out.println("Aucun mouvement d'exploration possible.");
-                game.getController().getView().addLogMessage("Aucune exploration possible.", this, "normal");
+                game.print("Aucun mouvement d'exploration possible.");
+                game.log("Aucune exploration possible.", this, "normal");
                 return;
             }
 
-            Pair<List<Ship>, List<Hexagon>> move = chooseExplore(possibleMoves);
+            long move = chooseExplore(possibleMoves);
 
             // Execute each move
-            this.explore.setShips(move.getKey());
-            this.explore.setTargets(move.getValue());
+            this.explore.setMove(move, game.getBoard());
             this.explore.execute();
 
-            int fleetSize = move.getKey().size();
+            int fleetSize = this.explore.getShips().size();
             if (fleetSize > 1) {
-                game.getController().getView().addLogMessage("Flotte de " + move.getKey().size() + " vaisseaux déplacés en " + move.getValue(), this, "normal");
+                game.log("Flotte de " + fleetSize + " vaisseaux déplacés en " + this.explore.getTargets(), this, "normal");
             } else {
-                game.getController().getView().addLogMessage("Un vaisseau déplacé en " + move.getValue(), this, "normal");
+                game.log("Un vaisseau déplacé en " + this.explore.getTargets(), this, "normal");
             }
 
             this.game.triggerInterfaceUpdate();
 
-            try {
-                Thread.sleep(Game.DELAY);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            this.game.pause();
 
         }
 
@@ -271,42 +308,38 @@ public class OffensiveBot extends Bot {
      */
     public void doExterminate(int efficiency) {
 
-        System.out.println(this.getPseudo() + " extermine");
-        game.getController().getView().addLogMessage("Exterminate (efficacité : " + efficiency + ")", this, "normal");
+        game.print(this.getPseudo() + " extermine");
+        game.log("Exterminate (efficacité : " + efficiency + ")", this, "normal");
 
         for (int i = 0; i < efficiency; i++) {
 
             // Generate possible moves
-            List<Pair<Set<Ship>, Hexagon>> possibleMoves = possibilities.exterminate(this);
+            MoveBuffer possibleMoves = this.possibleMoves();
+            possibilities.exterminate(this, possibleMoves);
 
             // Verifies that the player can do at least a move
             if (possibleMoves.isEmpty()) {
-                System.out.println("Aucun mouvement d'extermination possible.");
-                game.getController().getView().addLogMessage("Aucune extermination possible", this, "normal");
+                game.print("Aucun mouvement d'extermination possible.");
+                game.log("Aucune extermination possible", this, "normal");
                 return;
             }
 
-            Pair<Set<Ship>, Hexagon> move = chooseExterminate(possibleMoves);
+            long move = chooseExterminate(possibleMoves);
 
             //Set the ships and execute the command
-            this.exterminate.setShips(move.getKey());
-            this.exterminate.setTarget(move.getValue());
+            this.exterminate.setMove(move, game.getBoard());
             this.exterminate.execute();
 
-            int fleetSize = move.getKey().size();
+            int fleetSize = this.exterminate.getShips().size();
             if (fleetSize > 1) {
-                game.getController().getView().addLogMessage("Flotte de " + move.getKey().size() + " vaisseaux exterminent en " + move.getValue(), this, "normal");
+                game.log("Flotte de " + fleetSize + " vaisseaux exterminent en " + this.exterminate.getTarget(), this, "normal");
             } else {
-                game.getController().getView().addLogMessage("Un vaisseau extermine en " + move.getValue(), this, "normal");
+                game.log("Un vaisseau extermine en " + this.exterminate.getTarget(), this, "normal");
             }
 
             this.game.triggerInterfaceUpdate();
 
-            try {
-                Thread.sleep(Game.DELAY);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            this.game.pause();
 
         }
 
@@ -0,0 +1,325 @@
+package pimperium.players;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+
+import pimperium.elements.Sector;
+import pimperium.models.Game;
+import pimperium.models.GameSnapshot;
+
+/**
+ * Solver of the simultaneous choice of the orders of commands at the start of a round.
+ * The play order and the efficiency of each action depend on the orders of the 3 players, so the choice is a game
+ * of 6 x 6 x 6 joint outcomes. Each outcome is evaluated by playing the round in forks of the game with random bots,
+ * the evaluations being shared between workers, then the strategies of the players are found by regret matching
+ * on the table of the mean payoffs
+ */
+public final class OrderSolver {
+
+    /**
+     * The 6 possible orders of commands
+     */
+    private static final int[][] ORDERS = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+    public static final int NUM_ORDERS = ORDERS.length;
+    /**
+     * Number of joint outcomes, indexed by the orders of the players in play order: o0 * 36 + o1 * 6 + o2
+     */
+    private static final int NUM_CELLS = NUM_ORDERS * NUM_ORDERS * NUM_ORDERS;
+    /**
+     * Order of each player for each joint outcome
+     */
+    private static final int[][] CELL_ORDERS = new int[NUM_CELLS][];
+    static {
+        for (int cell = 0; cell < NUM_CELLS; cell++) {
+            CELL_ORDERS[cell] = new int[]{cell / 36, cell / 6 % 6, cell % 6};
+        }
+    }
+    /**
+     * Number of iterations of regret matching
+     */
+    private static final int ITERATIONS = 2000;
+
+    private final Game game;
+    private final int threads;
+
+    /**
+     * Sum of the payoffs of each player for each joint outcome, indexed by cell * NB_PLAYERS + position of the player
+     */
+    private final double[] payoffs = new double[NUM_CELLS * Game.NB_PLAYERS];
+    /**
+     * Number of evaluations of each joint outcome
+     */
+    private final int[] samples = new int[NUM_CELLS];
+    private long evaluations;
+    private long nanos;
+
+    /**
+     * Create a solver for the round to go
+     * @param game The game, before the players choose their orders
+     * @param threads The number of workers evaluating the outcomes in parallel, at most one per outcome
+     */
+    public OrderSolver(Game game, int threads) {
+        this.game = game;
+        this.threads = Math.max(1, Math.min(threads, NUM_CELLS));
+    }
+
+    /**
+     * Get one of the possible orders of commands
+     * @param code The index of the order (0 to 5)
+     * @return A new length-3 array
+     */
+    public static int[] order(int code) {
+        return ORDERS[code].clone();
+    }
+
+    /**
+     * Evaluate the joint outcomes until the time budget or the number of evaluations is spent. The outcomes are
+     * evaluated in a random order on each pass, so that the evaluation can stop at any time: the outcomes that
+     * haven't been evaluated yet count as even for every player
+     * @param timeBudget The time given to the evaluation in milliseconds, 0 for no time limit
+     * @param maxEvaluations The number of evaluations, 0 for no limit
+     * @param seed The seed of the random generators of the workers
+     */
+    public void evaluate(long timeBudget, long maxEvaluations, long seed) {
+
+        if (timeBudget <= 0 && maxEvaluations <= 0) {
+            throw new IllegalArgumentException("The evaluation needs a time or an evaluation budget.");
+        }
+        long start = System.nanoTime();
+        long deadline = timeBudget > 0 ? start + timeBudget * 1_000_000 : Long.MAX_VALUE;
+        GameSnapshot snapshot = this.game.snapshot();
+        SplittableRandom seeds = new SplittableRandom(seed);
+
+        // Each worker evaluates its share of the cells, one pass after the other, and at least one cell
+        List<Callable<double[]>> workers = new ArrayList<>(this.threads);
+        for (int w = 0; w < this.threads; w++) {
+            int first = w;
+            long quota = maxEvaluations > 0 ? Math.max(1, (maxEvaluations + w) / this.threads) : Long.MAX_VALUE;
+            SplittableRandom random = seeds.split();
+            workers.add(() -> {
+                double[] sums = new double[NUM_CELLS * (Game.NB_PLAYERS + 1)];
+                double[] values = new double[Game.NB_PLAYERS];
+                int[] cells = new int[(NUM_CELLS - first + this.threads - 1) / this.threads];
+                for (int c = 0; c < cells.length; c++) {
+                    cells[c] = first + c * this.threads;
+                }
+                long done = 0;
+                while (true) {
+                    shuffle(cells, random);
+                    for (int cell : cells) {
+                        if (done >= quota || done > 0 && System.nanoTime() >= deadline) return sums;
+                        evaluateCell(snapshot, cell, random.nextLong(), values);
+                        for (int k = 0; k < Game.NB_PLAYERS; k++) {
+                            sums[cell * (Game.NB_PLAYERS + 1) + k] += values[k];
+                        }
+                        sums[cell * (Game.NB_PLAYERS + 1) + Game.NB_PLAYERS]++;
+                        done++;
+                    }
+                }
+            });
+        }
+
+        for (double[] sums : SearchWorkers.invokeAll(workers)) {
+            for (int cell = 0; cell < NUM_CELLS; cell++) {
+                for (int k = 0; k < Game.NB_PLAYERS; k++) {
+                    this.payoffs[cell * Game.NB_PLAYERS + k] += sums[cell * (Game.NB_PLAYERS + 1) + k];
+                }
+                int count = (int) sums[cell * (Game.NB_PLAYERS + 1) + Game.NB_PLAYERS];
+                this.samples[cell] += count;
+                this.evaluations += count;
+            }
+        }
+        this.nanos += System.nanoTime() - start;
+    }
+
+    private static void shuffle(int[] values, SplittableRandom random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+
+    /**
+     * Play the round of a joint outcome in a fork of the game and evaluate it
+     * @param snapshot The game before the choice of the orders
+     * @param cell The joint outcome
+     * @param seed The seed of the fork
+     * @param values The value of the outcome for each player, in play order
+     */
+    private static void evaluateCell(GameSnapshot snapshot, int cell, long seed, double[] values) {
+        Game fork = snapshot.fork(seed, (player, game) -> player.copyAs(new RandomBot(game, player.getColor())));
+        Player[] players = fork.getPlayers();
+        for (int k = 0; k < players.length; k++) {
+            players[k].setOrderCommands(order(CELL_ORDERS[cell][k]));
+        }
+        fork.getPlayOrder();
+        fork.playRoundFrom(0, 0);
+        fork.endRound();
+        if (fork.isGameEnded() || fork.getRound() >= Game.NB_ROUNDS) {
+            fork.playToEnd();
+        }
+        evaluate(fork, values);
+    }
+
+    /**
+     * Evaluate the position of each player at the end of a round: its score, plus the levels it controls
+     * which it may score in the next rounds, minus the value of its best opponent
+     * @param fork The game at the end of a round
+     * @param values The value for each player, in play order
+     */
+    private static void evaluate(Game fork, double[] values) {
+        Player[] players = fork.getPlayers();
+        boolean over = fork.isGameEnded() || fork.getRound() >= Game.NB_ROUNDS;
+        double[] worth = new double[players.length];
+        for (int k = 0; k < players.length; k++) {
+            worth[k] = players[k].getScore();
+            if (!over) {
+                for (Sector sector : fork.getSectors()) {
+                    worth[k] += sector.getControlledLevels(players[k]);
+                }
+            }
+        }
+        for (int k = 0; k < players.length; k++) {
+            double bestOther = Double.NEGATIVE_INFINITY;
+            for (int q = 0; q < players.length; q++) {
+                if (q != k) bestOther = Math.max(bestOther, worth[q]);
+            }
+            values[k] = worth[k] - bestOther;
+        }
+    }
+
+    /**
+     * Get the mean payoff of a player for a joint outcome
+     * @param o0 The order of the first player in play order
+     * @param o1 The order of the second player
+     * @param o2 The order of the third player
+     * @param position The position of the player in play order
+     * @return The mean payoff, 0 if the outcome hasn't been evaluated
+     */
+    public double getPayoff(int o0, int o1, int o2, int position) {
+        int cell = (o0 * NUM_ORDERS + o1) * NUM_ORDERS + o2;
+        return this.samples[cell] == 0 ? 0 : this.payoffs[cell * Game.NB_PLAYERS + position] / this.samples[cell];
+    }
+
+    /**
+     * Solve the table of the mean payoffs by regret matching: each player repeatedly plays in proportion to its
+     * positive regrets against the current strategies of the others. The average strategies converge to a coarse
+     * correlated equilibrium, a Nash equilibrium when the game is zero-sum between two players
+     * @return The average mixed strategy of each player, indexed by position in play order then order
+     */
+    public double[][] solve() {
+
+        int n = Game.NB_PLAYERS;
+        double[] mean = new double[NUM_CELLS * n];
+        for (int cell = 0; cell < NUM_CELLS; cell++) {
+            for (int k = 0; k < n; k++) {
+                mean[cell * n + k] = this.samples[cell] == 0 ? 0 : this.payoffs[cell * n + k] / this.samples[cell];
+            }
+        }
+
+        double[][] regrets = new double[n][NUM_ORDERS];
+        double[][] strategies = new double[n][NUM_ORDERS];
+        double[][] averages = new double[n][NUM_ORDERS];
+        double[][] actionValues = new double[n][NUM_ORDERS];
+        double[] s0 = strategies[0];
+        double[] s1 = strategies[1];
+        double[] s2 = strategies[2];
+
+        for (int t = 0; t < ITERATIONS; t++) {
+            for (int k = 0; k < n; k++) {
+                matchRegrets(regrets[k], strategies[k]);
+                for (int o = 0; o < NUM_ORDERS; o++) {
+                    averages[k][o] += strategies[k][o];
+                }
+                Arrays.fill(actionValues[k], 0);
+            }
+
+            // Expected payoff of each order of each player against the current strategies of the others,
+            // in a single sweep of the table
+            int index = 0;
+            for (int o0 = 0; o0 < NUM_ORDERS; o0++) {
+                for (int o1 = 0; o1 < NUM_ORDERS; o1++) {
+                    double p01 = s0[o0] * s1[o1];
+                    for (int o2 = 0; o2 < NUM_ORDERS; o2++, index += n) {
+                        actionValues[0][o0] += s1[o1] * s2[o2] * mean[index];
+                        actionValues[1][o1] += s0[o0] * s2[o2] * mean[index + 1];
+                        actionValues[2][o2] += p01 * mean[index + 2];
+                    }
+                }
+            }
+
+            for (int k = 0; k < n; k++) {
+                double value = 0;
+                for (int o = 0; o < NUM_ORDERS; o++) {
+                    value += strategies[k][o] * actionValues[k][o];
+                }
+                for (int o = 0; o < NUM_ORDERS; o++) {
+                    regrets[k][o] += actionValues[k][o] - value;
+                }
+            }
+        }
+
+        for (double[] average : averages) {
+            double total = Arrays.stream(average).sum();
+            for (int o = 0; o < NUM_ORDERS; o++) {
+                average[o] /= total;
+            }
+        }
+        return averages;
+    }
+
+    /**
+     * Compute the strategy playing in proportion to the positive regrets, uniform if no regret is positive
+     */
+    private static void matchRegrets(double[] regrets, double[] strategy) {
+        double total = 0;
+        for (double regret : regrets) {
+            total += Math.max(0, regret);
+        }
+        for (int o = 0; o < strategy.length; o++) {
+            strategy[o] = total > 0 ? Math.max(0, regrets[o]) / total : 1.0 / strategy.length;
+        }
+    }
+
+    /**
+     * Draw an order from a mixed strategy
+     * @param strategy The probability of each order
+     * @param random The source of randomness
+     * @return The index of the drawn order
+     */
+    public static int sample(double[] strategy, SplittableRandom random) {
+        double r = random.nextDouble();
+        for (int o = 0; o < strategy.length - 1; o++) {
+            r -= strategy[o];
+            if (r < 0) return o;
+        }
+        return strategy.length - 1;
+    }
+
+    /**
+     * Get the number of evaluated rounds
+     * @return The number of evaluations of all the outcomes
+     */
+    public long getEvaluations() {
+        return this.evaluations;
+    }
+
+    /**
+     * Get the number of complete passes over the outcomes
+     * @return The smallest number of evaluations of an outcome
+     */
+    public int getCompletePasses() {
+        return Arrays.stream(this.samples).min().orElse(0);
+    }
+
+    /**
+     * Get the time spent evaluating the outcomes
+     * @return The time in nanoseconds
+     */
+    public long getNanos() {
+        return this.nanos;
+    }
+
+}
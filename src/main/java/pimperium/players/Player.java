@@ -6,11 +6,13 @@ import java.util.*;
 import pimperium.commands.Expand;
 import pimperium.commands.Explore;
 import pimperium.commands.Exterminate;
+import pimperium.commands.UndoLog;
 import pimperium.elements.Hexagon;
 import pimperium.elements.Sector;
 import pimperium.elements.Ship;
 import pimperium.utils.Colors;
 import pimperium.models.Game;
+import pimperium.models.Zobrist;
 
 
 /**
@@ -25,6 +27,10 @@ public abstract class Player implements Serializable {
      */
     protected List<Ship> ships;
     protected String pseudo;
+    /**
+     * Index of the player in the board masks, set by the game (0-1-2)
+     */
+    protected int id;
     /**
      * Current score
      */
@@ -53,6 +59,10 @@ public abstract class Player implements Serializable {
      * The color representing the player in the view
      */
     protected Colors color;
+    /**
+     * Random stream of the player, derived from the seed of the game when first needed
+     */
+    protected transient SplittableRandom random;
 
     /**
      * Create a new player with a chosen color and create its command cards
@@ -69,6 +79,33 @@ public abstract class Player implements Serializable {
         this.color = color;
     }
     
+    /**
+     * Create a player of the same kind for another game, without any ship
+     * @param game The game the new player will play
+     * @return The new player
+     */
+    protected abstract Player newInstance(Game game);
+
+    /**
+     * Copy the player for a forked game. Ships, score and order of commands are restored by the game
+     * @param game The forked game
+     * @return The copy of the player, with the same pseudo and id
+     */
+    public Player copyFor(Game game) {
+        return this.copyAs(this.newInstance(game));
+    }
+
+    /**
+     * Give the pseudo and id of the player to a player of another kind, standing for it in a forked game
+     * @param copy The new player, created for the forked game
+     * @return The new player
+     */
+    public Player copyAs(Player copy) {
+        copy.pseudo = this.pseudo;
+        copy.id = this.id;
+        return copy;
+    }
+
     //Return and set the order of commands as a list of int
     //Ex: {1,0,2} : Explore/Expand/Exterminate
 
@@ -90,6 +127,15 @@ public abstract class Player implements Serializable {
         this.ships.add(ship);
     }
 
+    /**
+     * Put a ship back at a given rank of the player's fleet
+     * @param index The rank of the ship
+     * @param ship The ship to add
+     */
+    public void addShip(int index, Ship ship) {
+        this.ships.add(index, ship);
+    }
+
     /**
      * Remove a ship from the player's fleet
      * @param ship The ship to remove
@@ -112,21 +158,45 @@ public abstract class Player implements Serializable {
 
     /**
      * Delete the extra ships in case the player currently controls more than the max amount of ships
+     * @param undoLog The log recording the destroyed ships
      */
-    public void deleteExtraShips() {
+    public void deleteExtraShips(UndoLog undoLog) {
 
         int numExtraShips = this.countShips() - Game.MAX_SHIPS;
-        System.out.println("num ships of " + pseudo + " : " + countShips());
+        game.print("num ships of " + pseudo + " : " + countShips());
         if (numExtraShips > 0) {
-            System.out.println(pseudo + " a déjà 15 vaisseaux sur le plateau");
-            game.getController().getView().addLogMessage("A déjà 15 vaisseaux sur le plateau.", this, "normal");
+            game.print(pseudo + " a déjà 15 vaisseaux sur le plateau");
+            game.log("A déjà 15 vaisseaux sur le plateau.", this, "normal");
             for (int i = 0; i < numExtraShips ; i++) {
-                this.getShips().getLast().destroy();
+                undoLog.destroy(this.getShips().getLast());
             }
         }
 
     }
 
+    public Game getGame() {
+        return this.game;
+    }
+
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Get the random stream of the player, which is the only source of randomness of its decisions
+     * @return The random generator of the player
+     */
+    public SplittableRandom getRandom() {
+        if (this.random == null) {
+            this.random = this.game.createPlayerRandom(this.id);
+        }
+        return this.random;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public String getPseudo() {
         return this.pseudo;
     }
@@ -140,11 +210,12 @@ public abstract class Player implements Serializable {
     }
 
     public void setScore(int score) {
+        this.game.updateHash(Zobrist.score(this.id, this.score) ^ Zobrist.score(this.id, score));
         this.score = score;
     }
 
     public void addScore(int score) {
-        this.score += score;
+        this.setScore(this.score + score);
     }
 
     public Colors getColor() {
@@ -182,11 +253,12 @@ public abstract class Player implements Serializable {
     }
 
     public void setOrderCommands(int[] orderCommands) {
+        this.game.updateHash(Zobrist.orderCommands(this.id, this.orderCommands) ^ Zobrist.orderCommands(this.id, orderCommands));
         this.orderCommands = orderCommands;
     }
 
     public void resetOrderCommands() {
-        this.orderCommands = null;
+        this.setOrderCommands(null);
     }
 
     /**
@@ -2,60 +2,61 @@ package pimperium.players;
 
 import java.util.*;
 
-import javafx.util.Pair;
-
-import pimperium.elements.Hexagon;
 import pimperium.elements.Ship;
 import pimperium.models.Game;
 import pimperium.utils.Colors;
+import pimperium.utils.Moves;
 
 /**
  * Bot player with a random strategy
  */
 public class RandomBot extends Bot {
 
+    /**
+     * Pinned to the class of the older saves, so that they can still be loaded
+     */
+    private static final long serialVersionUID = 6722676341846424444L;
+
     public RandomBot(Game game, Colors color) {
         super(game, color);
     }
 
+    protected Player newInstance(Game game) {
+        return new RandomBot(game, this.color);
+    }
+
     /**
      * Choose and perform Expand
      * @param efficiency Efficiency of the action
      */
     public void doExpand(int efficiency) {
 
-        System.out.println(this.getPseudo() + " s'étend");
-        game.getController().getView().addLogMessage("Expand (efficacité : " + efficiency + ")", this, "normal");
+        game.print(this.getPseudo() + " s'étend");
+        game.log("Expand (efficacité : " + efficiency + ")", this, "normal");
 
         for (int i = 0; i < efficiency; i++) {
 
-            // Get the ships on which it is possible to expand
-            List<Ship> possShips = possibilities.expand(this);
-
-            Random random = new Random();
+            // Draw one of the ships on which it is possible to expand
+            long move = possibilities.sampleExpand(this, this.getRandom());
 
             // Verifies that the player can do at least a move
-            if (possShips.isEmpty()) {
-                System.out.println("Aucune expansion possible.");
-                game.getController().getView().addLogMessage("Aucune expansion possible.", this, "normal");
+            if (move == Moves.NO_MOVE) {
+                game.print("Aucune expansion possible.");
+                game.log("Aucune expansion possible.", this, "normal");
                 return;
             }
 
-            Ship ship = possShips.get(random.nextInt(possShips.size()));
+            Ship ship = Moves.decodeExpand(move, game.getBoard());
 
             //Set the ship and execute the command
             this.expand.setShip(ship);
             this.expand.execute();
 
-            game.getController().getView().addLogMessage("Vaisseau ajouté en " + ship.getPosition(), this, "normal");
+            game.log("Vaisseau ajouté en " + ship.getPosition(), this, "normal");
 
             this.game.triggerInterfaceUpdate();
 
-            try {
-                Thread.sleep(Game.DELAY);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            this.game.pause();
 
         }
 
@@ -67,45 +68,35 @@ public class RandomBot extends Bot {
      */
     public void doExplore(int efficiency) {
 
-        System.out.println(this.getPseudo() + " explore with efficiency " + efficiency);
-        game.getController().getView().addLogMessage("Explore (efficacité : " + efficiency + ")", this, "normal");
+        game.print(this.getPseudo() + " explore with efficiency " + efficiency);
+        game.log("Explore (efficacité : " + efficiency + ")", this, "normal");
 
         for (int i = 0; i < efficiency; i++) {
 
-            List<Pair<List<Ship>, List<Hexagon>>> possibleMoves = possibilities.explore(this);
+            // Draw a move uniformly without generating the possible ones
+            long move = possibilities.sampleExplore(this, this.getRandom());
 
             // Verifies that the player can do at least a move
-            if (possibleMoves.isEmpty()) {
-                System.out.println("Aucun mouvement d'exploration possible.");
-                game.getController().getView().addLogMessage("Aucune exploration possible.", this, "normal");
+            if (move == Moves.NO_MOVE) {
+                game.print("Aucun mouvement d'exploration possible.");
+                game.log("Aucune exploration possible.", this, "normal");
                 return;
             }
 
-            Random random = new Random();
-
-            int index = random.nextInt(possibleMoves.size());
-            Pair<List<Ship>, List<Hexagon>> move = possibleMoves.get(index);
-
-
             // Execute each move
-            this.explore.setShips(move.getKey());
-            this.explore.setTargets(move.getValue());
+            this.explore.setMove(move, game.getBoard());
             this.explore.execute();
 
-            int fleetSize = move.getKey().size();
+            int fleetSize = this.explore.getShips().size();
             if (fleetSize > 1) {
-                game.getController().getView().addLogMessage("Flotte de " + move.getKey().size() + " vaisseaux déplacés en " + move.getValue(), this, "normal");
+                game.log("Flotte de " + fleetSize + " vaisseaux déplacés en " + this.explore.getTargets(), this, "normal");
             } else {
-                game.getController().getView().addLogMessage("Un vaisseau déplacé en " + move.getValue(), this, "normal");
+                game.log("Un vaisseau déplacé en " + this.explore.getTargets(), this, "normal");
             }
 
             this.game.triggerInterfaceUpdate();
 
-            try {
-                Thread.sleep(Game.DELAY);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            this.game.pause();
 
         }
 
@@ -117,47 +108,35 @@ public class RandomBot extends Bot {
      */
     public void doExterminate(int efficiency) {
 
-        System.out.println(this.getPseudo() + " extermine");
-        game.getController().getView().addLogMessage("Exterminate (efficacité : " + efficiency + ")", this, "normal");
+        game.print(this.getPseudo() + " extermine");
+        game.log("Exterminate (efficacité : " + efficiency + ")", this, "normal");
 
         for (int i = 0; i < efficiency; i++) {
 
-            // Generate possible moves
-            List<Pair<Set<Ship>, Hexagon>> possibleMoves = possibilities.exterminate(this);
-
+            // Randomly select a move among the possible ones, without generating them
+            long move = possibilities.sampleExterminate(this, this.getRandom());
 
             // Verifies that the player can do at least a move
-            if (possibleMoves.isEmpty()) {
-                System.out.println("Aucun mouvement d'extermination possible.");
-                game.getController().getView().addLogMessage("Aucune extermination possible", this, "normal");
+            if (move == Moves.NO_MOVE) {
+                game.print("Aucun mouvement d'extermination possible.");
+                game.log("Aucune extermination possible", this, "normal");
                 return;
             }
 
-            Random random = new Random();
-
-            // Randomly select a move among the possible ones
-            int index = random.nextInt(possibleMoves.size());
-            Pair<Set<Ship>, Hexagon> move = possibleMoves.get(index);
-
             //Set the ships and execute the command
-            this.exterminate.setShips(move.getKey());
-            this.exterminate.setTarget(move.getValue());
+            this.exterminate.setMove(move, game.getBoard());
             this.exterminate.execute();
 
-            int fleetSize = move.getKey().size();
+            int fleetSize = this.exterminate.getShips().size();
             if (fleetSize > 1) {
-                game.getController().getView().addLogMessage("Flotte de " + move.getKey().size() + " vaisseaux exterminent en " + move.getValue(), this, "normal");
+                game.log("Flotte de " + fleetSize + " vaisseaux exterminent en " + this.exterminate.getTarget(), this, "normal");
             } else {
-                game.getController().getView().addLogMessage("Un vaisseau extermine en " + move.getValue(), this, "normal");
+                game.log("Un vaisseau extermine en " + this.exterminate.getTarget(), this, "normal");
             }
 
             this.game.triggerInterfaceUpdate();
 
-            try {
-                Thread.sleep(Game.DELAY);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
+            this.game.pause();
 
         }
 
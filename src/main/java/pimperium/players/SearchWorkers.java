@@ -0,0 +1,55 @@
+package pimperium.players;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Pool shared by the workers of the searches (playouts of MctsBot, evaluations of OrderSolver). Its number of threads
+ * is fixed to the number of cores, whatever the number of searches running at once, so that a search started from a
+ * pool of games doesn't make that pool start more threads
+ */
+final class SearchWorkers {
+
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), task -> {
+        Thread thread = new Thread(task, "search-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SearchWorkers() {
+    }
+
+    /**
+     * Run workers and wait for all of them. A single worker runs on the calling thread
+     * @param workers The workers
+     * @return The result of each worker, in the order of the workers
+     */
+    static <T> List<T> invokeAll(List<Callable<T>> workers) {
+        List<T> results = new ArrayList<>(workers.size());
+        try {
+            if (workers.size() == 1) {
+                results.add(workers.getFirst().call());
+                return results;
+            }
+            for (Future<T> future : POOL.invokeAll(workers)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -1,6 +1,5 @@
 package pimperium.utils;
 
-import javafx.util.Pair;
 import pimperium.elements.Hexagon;
 import pimperium.elements.Ship;
 import pimperium.models.Game;
@@ -28,14 +27,15 @@ public class Debugger {
     }
 
     /**
-     * Display all possible distributions of ships
-     * @param distributions The list of distribution created previously
+     * Display all possible distributions of ships, as numbers of ships sent from each neighbour of the target
+     * @param moves The cursor over the packed Exterminate moves
      */
-    public static void displayDistributions(List<int[]> distributions) {
-        for (int[] distribution : distributions) {
-            System.out.print("\n[ ");
-            for (int i : distribution) {
-                System.out.print(i + " ");
+    public static void displayDistributions(ExterminateCursor moves) {
+        while (moves.hasNext()) {
+            long move = moves.nextLong();
+            System.out.print("\n" + Moves.target(move) + " : [ ");
+            for (int slot = 0; slot < Moves.MAX_ORIGINS; slot++) {
+                System.out.print(Moves.count(move, slot) + " ");
             }
             System.out.print("]");
         }
@@ -76,7 +76,7 @@ public class Debugger {
      */
     public static void displayAllExterminateMoves(Player player, Game game) {
 
-        List<Pair<Set<Ship>, Hexagon>> moves = Possibilities.getInstance(game).exterminate(player);
+        List<Pair<Set<Ship>, Hexagon>> moves = game.getPossibilities().exterminate(player);
         System.out.println("Total number of moves : " + moves.size());
         for (Pair<Set<Ship>, Hexagon> move : moves) {
             displayExterminateMove(move);
@@ -115,7 +115,7 @@ public class Debugger {
      */
     public static void displayAllExploreMoves(Player player, Game game) {
 
-        List<Pair<List<Ship>, List<Hexagon>>> moves = Possibilities.getInstance(game).explore(player);
+        List<Pair<List<Ship>, List<Hexagon>>> moves = game.getPossibilities().explore(player);
 
         System.out.println("Total number of moves : " + moves.size());
         for (Pair<List<Ship>, List<Hexagon>> move : moves) {
@@ -0,0 +1,20 @@
+package pimperium.utils;
+
+/**
+ * Pruning applied to the Exterminate moves, keeping only the distributions of ships that are not dominated
+ */
+public enum Dominance {
+    /**
+     * Every non-empty distribution of the usable ships
+     */
+    ALL,
+    /**
+     * Only the attack sending all the usable ships, for each target
+     */
+    MAXIMAL,
+    /**
+     * Only the attacks that take the target and stop doing so if any ship is removed,
+     * i.e. exactly one ship more than the defending fleet
+     */
+    MINIMAL_WINNING
+}
@@ -0,0 +1,48 @@
+package pimperium.utils;
+
+import java.util.List;
+
+import pimperium.elements.Ship;
+import pimperium.models.Board;
+import pimperium.players.Player;
+
+/**
+ * Cursor over the Expand moves of a player, yielding one move per ship that has not expanded yet
+ */
+public class ExpandCursor extends MoveCursor {
+
+    private final Board board;
+
+    private long hexs;
+    private int hex;
+    private List<Ship> ships = List.of();
+    private int position;
+    private int rank;
+
+    ExpandCursor(Board board, Player player) {
+        this.board = board;
+        this.hexs = board.getOccupiedMask(player) & board.getSystemMask();
+    }
+
+    protected long advance() {
+        while (true) {
+
+            while (this.position < this.ships.size()) {
+                // Condition: keep ships that have not expanded yet
+                if (!this.ships.get(this.position++).hasExpanded()) {
+                    return Moves.expand(this.hex, this.rank++);
+                }
+            }
+
+            if (this.hexs == 0) {
+                return END;
+            }
+            this.hex = Long.numberOfTrailingZeros(this.hexs);
+            this.hexs &= this.hexs - 1;
+            this.ships = this.board.getHex(this.hex).getShips();
+            this.position = 0;
+            this.rank = 0;
+        }
+    }
+
+}
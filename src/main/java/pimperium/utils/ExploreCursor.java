@@ -0,0 +1,111 @@
+package pimperium.utils;
+
+import pimperium.elements.Ship;
+import pimperium.models.Board;
+import pimperium.players.Player;
+
+/**
+ * Cursor over the Explore moves of a player, in the same order as the nested loops of Possibilities
+ * (origin, number of ships, first target, second target, number of ships dropped).
+ * Only one move is kept for each outcome: crossing an empty hex without dropping any ship
+ * is the same as any other path to the destination, so each destination is reached this way only once
+ */
+public class ExploreCursor extends MoveCursor {
+
+    private final Board board;
+    /**
+     * Hexs controlled by another player, that can't be crossed nor reached
+     */
+    private final long enemies;
+
+    private long origins;
+    private int origin;
+    private int totalUsableFleet;
+    private long distance1Targets;
+    private int numShips;
+    private long targets1;
+    private int target1;
+    private long targets2;
+    private int target2;
+    private int extendedFleet;
+    private int numShipsDropped;
+    private boolean isTarget1Empty;
+    /**
+     * Destinations already reached by the current fleet without dropping nor picking up any ship
+     */
+    private long reached;
+
+    ExploreCursor(Board board, Player player) {
+        this(board, player, board.getOccupiedMask(player));
+    }
+
+    /**
+     * Create a cursor over the moves leaving some of the hexs of the player
+     * @param board The board of the game
+     * @param player The player for which we generate the moves
+     * @param origins The mask of the hexs the fleets leave, all occupied by the player
+     */
+    ExploreCursor(Board board, Player player, long origins) {
+        this.board = board;
+        this.enemies = board.getEnemyMask(player);
+        this.origins = origins;
+    }
+
+    protected long advance() {
+        while (true) {
+
+            // The fleet goes to the second target, except for numShipsDropped that stop halfway
+            if (this.numShipsDropped < this.extendedFleet) {
+                int numShipsDropped = this.numShipsDropped++;
+                if (numShipsDropped == 0 && this.isTarget1Empty) {
+                    long bit = Board.bit(this.target2);
+                    if ((this.reached & bit) != 0) continue;
+                    this.reached |= bit;
+                }
+                return Moves.explore(this.origin, this.numShips, this.target1, this.target2, numShipsDropped);
+            }
+
+            if (this.targets2 != 0) {
+                this.target2 = Long.numberOfTrailingZeros(this.targets2);
+                this.targets2 &= this.targets2 - 1;
+                this.numShipsDropped = 0;
+                continue;
+            }
+
+            if (this.targets1 != 0) {
+                this.target1 = Long.numberOfTrailingZeros(this.targets1);
+                this.targets1 &= this.targets1 - 1;
+
+                // Prepare the distance-2 moves (none through Tri-Prime), the fleet picking up the ships located on the hex
+                this.extendedFleet = this.numShips + this.board.getHex(this.target1).getShips().size();
+                this.isTarget1Empty = this.extendedFleet == this.numShips;
+                this.targets2 = this.board.getTopology().getSecondStepMask(this.origin, this.target1) & ~this.enemies;
+                this.numShipsDropped = this.extendedFleet;
+
+                // The simplest move (the whole fleet moves to the 1-hex away destination)
+                return Moves.explore(this.origin, this.numShips, this.target1, Moves.NONE, 0);
+            }
+
+            if (this.numShips < this.totalUsableFleet) {
+                this.numShips++;
+                this.targets1 = this.distance1Targets;
+                // The direct moves already reach the neighbours of the origin
+                this.reached = this.distance1Targets;
+                continue;
+            }
+
+            if (this.origins == 0) {
+                return END;
+            }
+            this.origin = Long.numberOfTrailingZeros(this.origins);
+            this.origins &= this.origins - 1;
+            this.totalUsableFleet = 0;
+            for (Ship ship : this.board.getHex(this.origin).getShips()) {
+                if (!ship.hasExplored()) this.totalUsableFleet++;
+            }
+            this.distance1Targets = this.board.getNeighbourMask(this.origin) & ~this.enemies;
+            this.numShips = 0;
+        }
+    }
+
+}
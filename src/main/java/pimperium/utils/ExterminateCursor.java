@@ -0,0 +1,194 @@
+package pimperium.utils;
+
+import pimperium.elements.Ship;
+import pimperium.models.Board;
+import pimperium.players.Player;
+
+/**
+ * Cursor over the Exterminate moves of a player, visiting the distributions of ships of each target in place
+ */
+public class ExterminateCursor extends MoveCursor {
+
+    private final Board board;
+    private final Dominance dominance;
+
+    private long targets;
+    /**
+     * Number of usable ships of each hex occupied by the player, counted once whatever the number of targets around
+     */
+    private final int[] usableShips;
+    /**
+     * Number of usable ships on each neighbour of the current target
+     */
+    private final int[] fleetSizes = new int[Moves.MAX_ORIGINS];
+    /**
+     * Number of ships currently attacking from each neighbour of the current target
+     */
+    private final int[] distribution = new int[Moves.MAX_ORIGINS];
+    private int numOrigins;
+    private int target;
+    private long move;
+    private int totalShips;
+    /**
+     * Size of the attacking fleet required by MINIMAL_WINNING
+     */
+    private int winningShips;
+    private boolean hasTarget = false;
+
+    ExterminateCursor(Board board, Player player, Dominance dominance) {
+        // Targets are all the systems not controlled by the player
+        this(board, player, dominance, board.getSystemMask() & ~board.getOccupiedMask(player));
+    }
+
+    /**
+     * Create a cursor over the attacks of some of the systems
+     * @param board The board of the game
+     * @param player The player for which we generate the moves
+     * @param dominance The pruning applied to the distributions of ships
+     * @param targets The mask of the attacked systems, none of them controlled by the player
+     */
+    ExterminateCursor(Board board, Player player, Dominance dominance, long targets) {
+        this.board = board;
+        this.dominance = dominance;
+        this.targets = targets;
+
+        // Only the hexs of the player next to a target can attack
+        long origins = 0;
+        for (long mask = targets; mask != 0; mask &= mask - 1) {
+            origins |= board.getNeighbourMask(Long.numberOfTrailingZeros(mask));
+        }
+        origins &= board.getOccupiedMask(player);
+
+        this.usableShips = new int[board.size()];
+        for (; origins != 0; origins &= origins - 1) {
+            int origin = Long.numberOfTrailingZeros(origins);
+            for (Ship ship : board.getHex(origin).getShips()) {
+                if (!ship.hasExterminated()) this.usableShips[origin]++;
+            }
+        }
+    }
+
+    /**
+     * Move to the next attack sending exactly winningShips ships, in the order of the odometer of the other
+     * dominances (first origin fastest). The origins after the first one run their own odometer, skipping the
+     * distributions that can't reach the winning fleet, and the first origin sends the rest of it
+     * @return Whether there is a next attack on the current target
+     */
+    private boolean nextWinning() {
+        // Ships sent by the origins after the first one, and the most the origins below i can send
+        int sum = this.winningShips - this.distribution[0];
+        int capacityBelow = 0;
+        for (int i = 1; i < this.numOrigins; i++) {
+            // Smallest increment of origin i letting the lower origins and the first one complete the fleet
+            int need = Math.max(1, this.winningShips - this.fleetSizes[0] - sum - capacityBelow);
+            if (this.distribution[i] + need <= this.fleetSizes[i] && sum + need <= this.winningShips) {
+                this.distribution[i] += need;
+                this.completeWinning(i, sum + need);
+                return true;
+            }
+            sum -= this.distribution[i];
+            this.distribution[i] = 0;
+            capacityBelow += this.fleetSizes[i];
+        }
+        return false;
+    }
+
+    /**
+     * Complete the winning fleet once the origins from limit on are set: the origins 1 to limit - 1 send as few
+     * ships as possible, the lowest ones first, and the first origin sends the rest
+     * @param limit The first origin already set, the origins between 1 and limit - 1 sending no ship
+     * @param sum The number of ships sent by the origins already set
+     */
+    private void completeWinning(int limit, int sum) {
+        int deficit = Math.max(0, this.winningShips - this.fleetSizes[0] - sum);
+        for (int j = 1; j < limit && deficit > 0; j++) {
+            int ships = Math.min(deficit, this.fleetSizes[j]);
+            this.distribution[j] = ships;
+            deficit -= ships;
+            sum += ships;
+        }
+        this.distribution[0] = this.winningShips - sum;
+        this.totalShips = this.winningShips;
+
+        this.move = Moves.exterminate(this.target);
+        for (int j = 0; j < this.numOrigins; j++) {
+            this.move = Moves.withCount(this.move, j, this.distribution[j]);
+        }
+    }
+
+    protected long advance() {
+        while (true) {
+
+            if (this.hasTarget && this.dominance == Dominance.MINIMAL_WINNING) {
+                if (this.nextWinning()) return this.move;
+                this.hasTarget = false;
+            }
+
+            while (this.hasTarget) {
+                // Increment the distribution vector
+                int i = 0;
+                while (i < this.numOrigins) {
+                    if (this.distribution[i] < this.fleetSizes[i]) {
+                        this.distribution[i]++;
+                        this.totalShips++;
+                        this.move += 1L << Moves.countShift(i);
+                        break; // Valid increment; exit inner loop
+                    } else {
+                        this.totalShips -= this.distribution[i];
+                        this.distribution[i] = 0; // Reset current position
+                        this.move = Moves.withCount(this.move, i, 0);
+                        i++; // Carry over to the next position
+                    }
+                }
+
+                // The empty distribution is only reached once all combinations are exhausted
+                if (i == this.numOrigins) {
+                    this.hasTarget = false;
+                } else {
+                    return this.move;
+                }
+            }
+
+            if (this.targets == 0) {
+                return END;
+            }
+            int target = Long.numberOfTrailingZeros(this.targets);
+            this.targets &= this.targets - 1;
+            this.target = target;
+
+            // Find all the hexs the player can attack from
+            this.numOrigins = 0;
+            int availableShips = 0;
+            long fullMove = Moves.exterminate(target);
+            for (long neighbours = this.board.getNeighbourMask(target); neighbours != 0; neighbours &= neighbours - 1) {
+                int usableShips = this.usableShips[Long.numberOfTrailingZeros(neighbours)];
+                this.fleetSizes[this.numOrigins] = usableShips;
+                this.distribution[this.numOrigins] = 0;
+                fullMove = Moves.withCount(fullMove, this.numOrigins, usableShips);
+                availableShips += usableShips;
+                this.numOrigins++;
+            }
+            if (availableShips == 0) continue;
+
+            switch (this.dominance) {
+                case MAXIMAL:
+                    return fullMove;
+                case MINIMAL_WINNING:
+                    // The target can't be taken if all the usable ships are not enough
+                    this.winningShips = this.board.getHex(target).getShips().size() + 1;
+                    if (availableShips < this.winningShips) continue;
+                    // First attack: as few ships as possible on the last origins
+                    this.hasTarget = true;
+                    this.completeWinning(this.numOrigins, 0);
+                    return this.move;
+                default:
+                    break;
+            }
+
+            this.hasTarget = true;
+            this.totalShips = 0;
+            this.move = Moves.exterminate(target);
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package pimperium.utils;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Reusable growable array of packed moves, owned by the caller and filled by the move generators
+ */
+public class MoveBuffer implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long[] moves;
+    private int size;
+
+    public MoveBuffer() {
+        this(256);
+    }
+
+    /**
+     * Create an empty buffer
+     * @param capacity The initial capacity, grown when needed
+     */
+    public MoveBuffer(int capacity) {
+        this.moves = new long[Math.max(capacity, 1)];
+        this.size = 0;
+    }
+
+    /**
+     * Empty the buffer while keeping its capacity
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Add a packed move at the end of the buffer
+     * @param move The packed move
+     */
+    public void add(long move) {
+        if (this.size == this.moves.length) {
+            this.moves = Arrays.copyOf(this.moves, 2 * this.moves.length);
+        }
+        this.moves[this.size++] = move;
+    }
+
+    /**
+     * Add all the moves of another buffer at the end of the buffer
+     * @param other The buffer to copy
+     */
+    public void addAll(MoveBuffer other) {
+        if (this.size + other.size > this.moves.length) {
+            this.moves = Arrays.copyOf(this.moves, Math.max(2 * this.moves.length, this.size + other.size));
+        }
+        System.arraycopy(other.moves, 0, this.moves, this.size, other.size);
+        this.size += other.size;
+    }
+
+    public long get(int index) {
+        if (index >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + this.size);
+        }
+        return this.moves[index];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Exchange two moves of the buffer
+     * @param i The index of the first move
+     * @param j The index of the second move
+     */
+    public void swap(int i, int j) {
+        if (i >= this.size || j >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + Math.max(i, j) + " out of bounds for size " + this.size);
+        }
+        long move = this.moves[i];
+        this.moves[i] = this.moves[j];
+        this.moves[j] = move;
+    }
+
+    /**
+     * Whether a packed move is in the buffer
+     * @param move The packed move
+     * @return Whether the move has been added
+     */
+    public boolean contains(long move) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.moves[i] == move) return true;
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+}
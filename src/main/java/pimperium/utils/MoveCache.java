@@ -0,0 +1,115 @@
+package pimperium.utils;
+
+import pimperium.models.Board;
+import pimperium.players.Player;
+
+/**
+ * Cache of the Explore and Exterminate moves of each player, stored by hexagon (origin of the Explore moves,
+ * target of the Exterminate moves). The board reports the hexagons whose ships changed, and only the entries
+ * that may depend on them are generated again
+ */
+public class MoveCache {
+
+    private final Board board;
+    /**
+     * Explore moves leaving each hexagon, indexed by player id then hexagon index
+     */
+    private final MoveBuffer[][] exploreMoves;
+    /**
+     * Exterminate moves attacking each hexagon, indexed by player id then hexagon index
+     */
+    private final MoveBuffer[][] exterminateMoves;
+    /**
+     * Hexagons whose cached moves are up to date, for each player
+     */
+    private final long[] validExplore;
+    private final long[] validExterminate;
+
+    MoveCache(Board board, int numPlayers) {
+        this.board = board;
+        this.exploreMoves = new MoveBuffer[numPlayers][board.size()];
+        this.exterminateMoves = new MoveBuffer[numPlayers][board.size()];
+        this.validExplore = new long[numPlayers];
+        this.validExterminate = new long[numPlayers];
+        board.pollChangedMask();
+    }
+
+    /**
+     * Whether the cache was built for a given board
+     * @param board The board of the game
+     * @return Whether the cached moves belong to this board
+     */
+    boolean isFor(Board board) {
+        return this.board == board;
+    }
+
+    /**
+     * Invalidate the entries depending on the hexagons changed since the last call
+     */
+    private void refresh() {
+        long changed = this.board.pollChangedMask();
+        if (changed == 0) return;
+
+        // An Exterminate move reads its target and the neighbours of the target,
+        // an Explore move reads its origin and the hexagons up to 2 hexs away
+        long distance1 = 0;
+        long distance2 = 0;
+        for (long mask = changed; mask != 0; mask &= mask - 1) {
+            int hex = Long.numberOfTrailingZeros(mask);
+            distance1 |= this.board.getTopology().getWithinMask(hex, 1);
+            distance2 |= this.board.getTopology().getWithinMask(hex, 2);
+        }
+
+        for (int p = 0; p < this.validExplore.length; p++) {
+            this.validExplore[p] &= ~distance2;
+            this.validExterminate[p] &= ~distance1;
+        }
+    }
+
+    /**
+     * Get all the possible Explore moves, generating only the origins that changed
+     * @param player The player for which we generate the move
+     * @param moves The buffer filled with the possible moves (cleared first)
+     */
+    void explore(Player player, MoveBuffer moves) {
+        this.refresh();
+        moves.clear();
+
+        int p = player.getId();
+        for (long origins = this.board.getOccupiedMask(player); origins != 0; origins &= origins - 1) {
+            int origin = Long.numberOfTrailingZeros(origins);
+            if ((this.validExplore[p] & Board.bit(origin)) == 0) {
+                if (this.exploreMoves[p][origin] == null) {
+                    this.exploreMoves[p][origin] = new MoveBuffer(64);
+                }
+                new ExploreCursor(this.board, player, Board.bit(origin)).drainTo(this.exploreMoves[p][origin]);
+                this.validExplore[p] |= Board.bit(origin);
+            }
+            moves.addAll(this.exploreMoves[p][origin]);
+        }
+    }
+
+    /**
+     * Get all the possible Exterminate moves, generating only the targets that changed
+     * @param player The player for which we generate the move
+     * @param moves The buffer filled with the possible moves (cleared first)
+     */
+    void exterminate(Player player, MoveBuffer moves) {
+        this.refresh();
+        moves.clear();
+
+        int p = player.getId();
+        for (long targets = this.board.getSystemMask() & ~this.board.getOccupiedMask(player); targets != 0; targets &= targets - 1) {
+            int target = Long.numberOfTrailingZeros(targets);
+            if ((this.validExterminate[p] & Board.bit(target)) == 0) {
+                if (this.exterminateMoves[p][target] == null) {
+                    this.exterminateMoves[p][target] = new MoveBuffer(16);
+                }
+                new ExterminateCursor(this.board, player, Dominance.ALL, Board.bit(target)).drainTo(this.exterminateMoves[p][target]);
+                this.validExterminate[p] |= Board.bit(target);
+            }
+            moves.addAll(this.exterminateMoves[p][target]);
+        }
+    }
+
+}
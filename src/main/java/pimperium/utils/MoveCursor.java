@@ -0,0 +1,91 @@
+package pimperium.utils;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Pull-based generator of packed moves, yielding the moves one at a time without materializing them.
+ * A cursor reads the board while it advances, so it must not be used any more once a move has been executed
+ */
+public abstract class MoveCursor implements PrimitiveIterator.OfLong {
+
+    /**
+     * Value returned by advance() when all the moves have been generated
+     */
+    protected static final long END = Moves.NO_MOVE;
+
+    private long next;
+    private boolean fetched = false;
+
+    /**
+     * Generate the next move
+     * @return The next packed move, or END if there is none left
+     */
+    protected abstract long advance();
+
+    public boolean hasNext() {
+        if (!this.fetched) {
+            this.next = this.advance();
+            this.fetched = true;
+        }
+        return this.next != END;
+    }
+
+    public long nextLong() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException("No move left.");
+        }
+        this.fetched = false;
+        return this.next;
+    }
+
+    /**
+     * Skip moves without returning them
+     * @param n The number of moves to skip
+     * @return This cursor, positioned after the skipped moves
+     */
+    public MoveCursor skip(long n) {
+        for (long i = 0; i < n && this.hasNext(); i++) {
+            this.nextLong();
+        }
+        return this;
+    }
+
+    /**
+     * Count the remaining moves by consuming the cursor
+     * @return The number of moves left
+     */
+    public long count() {
+        long count = 0;
+        while (this.hasNext()) {
+            this.nextLong();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Copy the remaining moves into a buffer
+     * @param moves The buffer filled with the remaining moves (cleared first)
+     */
+    public void drainTo(MoveBuffer moves) {
+        moves.clear();
+        while (this.hasNext()) {
+            moves.add(this.nextLong());
+        }
+    }
+
+    /**
+     * View the remaining moves as a stream, which stops generating as soon as the stream is short-circuited
+     * @return The sequential stream of the remaining packed moves
+     */
+    public LongStream stream() {
+        return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+}
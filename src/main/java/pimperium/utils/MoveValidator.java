@@ -0,0 +1,222 @@
+package pimperium.utils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+import pimperium.elements.Hexagon;
+import pimperium.elements.Ship;
+import pimperium.models.Board;
+import pimperium.players.Player;
+
+/**
+ * Check a single move against the rules of the game, without generating the other possible moves.
+ * A move is accepted exactly when Possibilities would generate it
+ */
+public final class MoveValidator {
+
+    private MoveValidator() {
+    }
+
+    /**
+     * Check an Expand move
+     * @param board The board of the game
+     * @param hex The hexagon where the Expand would be performed
+     * @param player The player trying the move
+     * @return Whether the player controls the system and has a ship on it that has not expanded yet
+     */
+    public static boolean isValidExpand(Board board, Hexagon hex, Player player) {
+        if (!board.contains(hex) || (board.getSystemMask() & Board.bit(hex.getIndex())) == 0) {
+            return false;
+        }
+        if (hex.getOccupant() != player) {
+            return false;
+        }
+        for (Ship ship : hex.getShips()) {
+            if (!ship.hasExpanded()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check an Explore move, the player being the owner of the first ship
+     * @param board The board of the game
+     * @param move The move, stored as a list of ships assigned to a list of destinations
+     * @return Whether the move is one of the possible Explore moves
+     */
+    public static boolean isValidExplore(Board board, Pair<List<Ship>, List<Hexagon>> move) {
+
+        List<Ship> ships = move.getKey();
+        List<Hexagon> destinations = move.getValue();
+        if (ships.isEmpty() || ships.size() != destinations.size()) {
+            return false;
+        }
+        for (Hexagon destination : destinations) {
+            if (!board.contains(destination)) return false;
+        }
+
+        Player player = ships.getFirst().getOwner();
+        long enemies = board.getEnemyMask(player);
+
+        // Destinations are made of a run of ships dropped on the first target, then a run reaching the last one
+        int numDropped = 1;
+        while (numDropped < destinations.size() && destinations.get(numDropped) == destinations.getFirst()) {
+            numDropped++;
+        }
+        for (int i = numDropped; i < destinations.size(); i++) {
+            if (destinations.get(i) != destinations.getLast()) return false;
+        }
+
+        if (numDropped == destinations.size()) {
+            // All the ships reach the same hex: either 1 hex away, or 2 hexs away without stopping
+            return isValidDistance1(board, ships, destinations.getFirst().getIndex(), enemies)
+                    || isValidDistance2WithoutDrop(board, ships, destinations.getFirst().getIndex(), player, enemies);
+        }
+
+        // The ships dropped are listed first, so the extended fleet is rebuilt by moving them back to the end
+        int target1 = destinations.getFirst().getIndex();
+        int target2 = destinations.getLast().getIndex();
+        List<Ship> target1Ships = board.getHex(target1).getShips();
+        int numShips = ships.size() - target1Ships.size();
+        if (numShips < 1) {
+            return false;
+        }
+        int numGoing = ships.size() - numDropped;
+        for (int i = 0; i < target1Ships.size(); i++) {
+            // Position i + numShips of the extended fleet
+            int k = i + numShips;
+            Ship ship = k < numGoing ? ships.get(numDropped + k) : ships.get(k - numGoing);
+            if (ship != target1Ships.get(i)) return false;
+        }
+        // The extended fleet starts with the ships of the origin
+        int origin = ships.get(numDropped).getPosition().getIndex();
+        if (origin < 0) {
+            return false;
+        }
+        for (int k = 0; k < numShips; k++) {
+            Ship ship = k < numGoing ? ships.get(numDropped + k) : ships.get(k - numGoing);
+            if (!isNthUsableExplorer(board, origin, k, ship)) return false;
+        }
+        return isValidPath(board, origin, target1, target2, player, enemies);
+    }
+
+    /**
+     * Check a distance-1 Explore move, the whole fleet reaching the target
+     */
+    private static boolean isValidDistance1(Board board, List<Ship> ships, int target, long enemies) {
+        int origin = ships.getFirst().getPosition().getIndex();
+        if (origin < 0 || (board.getOccupiedMask(ships.getFirst().getOwner()) & Board.bit(origin)) == 0) {
+            return false;
+        }
+        if ((board.getNeighbourMask(origin) & ~enemies & Board.bit(target)) == 0) {
+            return false;
+        }
+        for (int k = 0; k < ships.size(); k++) {
+            if (!isNthUsableExplorer(board, origin, k, ships.get(k))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Check a distance-2 Explore move where no ship stops on the first target. The fleet of the origin comes first,
+     * followed by all the ships picked up on the first target, which is found from their position
+     */
+    private static boolean isValidDistance2WithoutDrop(Board board, List<Ship> ships, int target2, Player player, long enemies) {
+        int origin = ships.getFirst().getPosition().getIndex();
+        if (origin < 0) {
+            return false;
+        }
+        int numShips = 0;
+        while (numShips < ships.size() && ships.get(numShips).getPosition().getIndex() == origin) {
+            if (!isNthUsableExplorer(board, origin, numShips, ships.get(numShips))) return false;
+            numShips++;
+        }
+
+        if (numShips == ships.size()) {
+            // Nothing picked up: any empty hex between the origin and the destination will do
+            long target1s = board.getNeighbourMask(origin) & board.getNeighbourMask(target2)
+                    & ~board.getTriPrimeMask() & ~board.getOccupiedMask();
+            for (; target1s != 0; target1s &= target1s - 1) {
+                if (isValidPath(board, origin, Long.numberOfTrailingZeros(target1s), target2, player, enemies)) return true;
+            }
+            return false;
+        }
+
+        int target1 = ships.get(numShips).getPosition().getIndex();
+        if (!ships.subList(numShips, ships.size()).equals(board.getHex(target1).getShips())) {
+            return false;
+        }
+        return isValidPath(board, origin, target1, target2, player, enemies);
+    }
+
+    /**
+     * Check the hexs crossed by a distance-2 Explore move
+     */
+    private static boolean isValidPath(Board board, int origin, int target1, int target2, Player player, long enemies) {
+        return origin >= 0
+                && (board.getOccupiedMask(player) & Board.bit(origin)) != 0
+                && (board.getNeighbourMask(origin) & ~enemies & ~board.getTriPrimeMask() & Board.bit(target1)) != 0
+                && (board.getTopology().getSecondStepMask(origin, target1) & ~enemies & Board.bit(target2)) != 0;
+    }
+
+    /**
+     * Whether a ship is the k-th ship of a hex that has not explored yet, the fleets always using the first ones
+     */
+    private static boolean isNthUsableExplorer(Board board, int hex, int k, Ship ship) {
+        for (Ship candidate : board.getHex(hex).getShips()) {
+            if (!candidate.hasExplored() && k-- == 0) {
+                return candidate == ship;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check an Exterminate move
+     * @param board The board of the game
+     * @param move The move, stored as a set of ships assigned to a hexagon
+     * @param player The player performing the move
+     * @return Whether the move is one of the possible Exterminate moves
+     */
+    public static boolean isValidExterminate(Board board, Pair<Set<Ship>, Hexagon> move, Player player) {
+
+        Set<Ship> fleet = move.getKey();
+        Hexagon target = move.getValue();
+        if (fleet.isEmpty() || !board.contains(target)) {
+            return false;
+        }
+        long occupied = board.getOccupiedMask(player);
+        long bit = Board.bit(target.getIndex());
+        if ((board.getSystemMask() & bit) == 0 || (occupied & bit) != 0) {
+            return false;
+        }
+
+        // Count the ships sent from each origin, which must be a neighbour of the target controlled by the player
+        long origins = board.getNeighbourMask(target.getIndex()) & occupied;
+        Map<Hexagon, Integer> counts = new HashMap<>();
+        for (Ship ship : fleet) {
+            Hexagon origin = ship.getPosition();
+            if (origin.getIndex() < 0 || (origins & Board.bit(origin.getIndex())) == 0) {
+                return false;
+            }
+            counts.merge(origin, 1, Integer::sum);
+        }
+
+        // Each origin always sends its first ships that have not exterminated yet
+        for (Map.Entry<Hexagon, Integer> entry : counts.entrySet()) {
+            int count = entry.getValue();
+            for (Ship ship : entry.getKey().getShips()) {
+                if (count == 0) break;
+                if (!ship.hasExterminated()) {
+                    if (!fleet.contains(ship)) return false;
+                    count--;
+                }
+            }
+            if (count > 0) return false;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,244 @@
+package pimperium.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+
+import pimperium.elements.Hexagon;
+import pimperium.elements.Ship;
+import pimperium.models.Board;
+
+/**
+ * Packed encoding of the moves as primitive longs, using the indexes of the board.
+ * Ships are not stored in the moves: the usable ships of a hexagon are interchangeable, so a move only
+ * stores how many of them are used and always takes the first ones. This canonical form gives one move
+ * per outcome instead of one per selection of ships, and can be converted back to ships as long as
+ * the board has not changed
+ */
+public final class Moves {
+
+    /**
+     * Value of the second target of a distance-1 Explore move
+     */
+    public static final int NONE = 63;
+    /**
+     * Max number of neighbours of a hexagon (reached by Tri-Prime), which bounds the origins of an Exterminate
+     */
+    public static final int MAX_ORIGINS = 10;
+    /**
+     * Value returned instead of a move when there is none (packed moves are never negative)
+     */
+    public static final long NO_MOVE = -1;
+
+    private static final int FIELD_BITS = 6;
+    private static final long FIELD_MASK = (1L << FIELD_BITS) - 1;
+
+    private static final int COUNT_BITS = 5;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private Moves() {
+    }
+
+    /**
+     * Encode an Explore move. The first numShips usable ships of the origin go to target1.
+     * For a distance-2 move, they pick up the ships of target1 and all continue to target2, except for the last dropped ones
+     * @param origin Index of the hexagon the fleet leaves
+     * @param numShips Number of usable ships leaving the origin
+     * @param target1 Index of the first hexagon reached
+     * @param target2 Index of the destination of a distance-2 move, NONE otherwise
+     * @param dropped Number of ships stopping on target1 during a distance-2 move
+     * @return The packed move
+     */
+    public static long explore(int origin, int numShips, int target1, int target2, int dropped) {
+        return origin
+                | (long) numShips << FIELD_BITS
+                | (long) target1 << 2 * FIELD_BITS
+                | (long) target2 << 3 * FIELD_BITS
+                | (long) dropped << 4 * FIELD_BITS;
+    }
+
+    public static int origin(long move) {
+        return (int) (move & FIELD_MASK);
+    }
+
+    public static int numShips(long move) {
+        return (int) (move >>> FIELD_BITS & FIELD_MASK);
+    }
+
+    public static int target1(long move) {
+        return (int) (move >>> 2 * FIELD_BITS & FIELD_MASK);
+    }
+
+    public static int target2(long move) {
+        return (int) (move >>> 3 * FIELD_BITS & FIELD_MASK);
+    }
+
+    public static int dropped(long move) {
+        return (int) (move >>> 4 * FIELD_BITS & FIELD_MASK);
+    }
+
+    /**
+     * Whether an Explore move goes 2 hexagons away
+     * @param move The packed Explore move
+     * @return Whether the move has a second target
+     */
+    public static boolean isDistance2(long move) {
+        return target2(move) != NONE;
+    }
+
+    /**
+     * Encode an Exterminate move without any attacking ship yet
+     * @param target Index of the attacked hexagon
+     * @return The packed move
+     */
+    public static long exterminate(int target) {
+        return target;
+    }
+
+    /**
+     * Get the shift of the ship count of a given origin of an Exterminate move
+     * @param slot Rank of the origin among the neighbours of the target, in increasing index order
+     * @return The shift of the count in the packed move
+     */
+    public static int countShift(int slot) {
+        return FIELD_BITS + slot * COUNT_BITS;
+    }
+
+    /**
+     * Set the number of ships attacking from a given origin of an Exterminate move
+     * @param move The packed Exterminate move
+     * @param slot Rank of the origin among the neighbours of the target, in increasing index order
+     * @param count Number of usable ships attacking from this origin
+     * @return The updated move
+     */
+    public static long withCount(long move, int slot, int count) {
+        return move & ~(COUNT_MASK << countShift(slot)) | (long) count << countShift(slot);
+    }
+
+    public static int target(long move) {
+        return (int) (move & FIELD_MASK);
+    }
+
+    /**
+     * Get the number of ships attacking from a given origin of an Exterminate move
+     * @param move The packed Exterminate move
+     * @param slot Rank of the origin among the neighbours of the target, in increasing index order
+     * @return The number of ships
+     */
+    public static int count(long move, int slot) {
+        return (int) (move >>> countShift(slot) & COUNT_MASK);
+    }
+
+    /**
+     * Get the total number of ships of an Exterminate move
+     * @param move The packed Exterminate move
+     * @return The size of the attacking fleet
+     */
+    public static int totalCount(long move) {
+        int total = 0;
+        for (int slot = 0; slot < MAX_ORIGINS; slot++) {
+            total += count(move, slot);
+        }
+        return total;
+    }
+
+    /**
+     * Encode an Expand move
+     * @param hex Index of the system hexagon
+     * @param rank Rank of the expanding ship among the ships of the hexagon that have not expanded yet
+     * @return The packed move
+     */
+    public static long expand(int hex, int rank) {
+        return hex | (long) rank << FIELD_BITS;
+    }
+
+    public static int hex(long move) {
+        return (int) (move & FIELD_MASK);
+    }
+
+    public static int rank(long move) {
+        return (int) (move >>> FIELD_BITS & FIELD_MASK);
+    }
+
+    /**
+     * Convert a packed Expand move to the expanding ship
+     * @param move The packed Expand move
+     * @param board The board the move was generated on
+     * @return The ship, or null if the hexagon has not enough ships left
+     */
+    public static Ship decodeExpand(long move, Board board) {
+        int rank = rank(move);
+        for (Ship ship : board.getHex(hex(move)).getShips()) {
+            if (!ship.hasExpanded() && rank-- == 0) {
+                return ship;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Convert a packed Explore move to the ships moving and their destinations
+     * @param move The packed Explore move
+     * @param board The board the move was generated on
+     * @return The move as a list of ships assigned to a list of destinations
+     */
+    public static Pair<List<Ship>, List<Hexagon>> decodeExplore(long move, Board board) {
+
+        Hexagon origin = board.getHex(origin(move));
+        Hexagon target1 = board.getHex(target1(move));
+        int numShips = numShips(move);
+
+        List<Ship> fleet = new ArrayList<>(numShips);
+        for (Ship ship : origin.getShips()) {
+            if (fleet.size() == numShips) break;
+            if (!ship.hasExplored()) fleet.add(ship);
+        }
+
+        if (!isDistance2(move)) {
+            return new Pair<>(fleet, new ArrayList<>(Collections.nCopies(numShips, target1)));
+        }
+
+        // The fleet picks up the ships of the first target, and the last ones are dropped there
+        List<Ship> extendedFleet = fleet;
+        extendedFleet.addAll(target1.getShips());
+        int numGoing = extendedFleet.size() - dropped(move);
+
+        List<Ship> fullFleet = new ArrayList<>(extendedFleet.subList(numGoing, extendedFleet.size()));
+        fullFleet.addAll(extendedFleet.subList(0, numGoing));
+
+        List<Hexagon> fullDestinations = new ArrayList<>(Collections.nCopies(dropped(move), target1));
+        fullDestinations.addAll(Collections.nCopies(numGoing, board.getHex(target2(move))));
+
+        return new Pair<>(fullFleet, fullDestinations);
+    }
+
+    /**
+     * Convert a packed Exterminate move to the attacking ships and the target
+     * @param move The packed Exterminate move
+     * @param board The board the move was generated on
+     * @return The move as a set of ships assigned to a hexagon
+     */
+    public static Pair<Set<Ship>, Hexagon> decodeExterminate(long move, Board board) {
+
+        int target = target(move);
+        Set<Ship> fleet = new LinkedHashSet<>();
+
+        int slot = 0;
+        for (long neighbours = board.getNeighbourMask(target); neighbours != 0; neighbours &= neighbours - 1) {
+            int count = count(move, slot++);
+            for (Ship ship : board.getHex(Long.numberOfTrailingZeros(neighbours)).getShips()) {
+                if (count == 0) break;
+                if (!ship.hasExterminated()) {
+                    fleet.add(ship);
+                    count--;
+                }
+            }
+        }
+
+        return new Pair<>(fleet, board.getHex(target));
+    }
+
+}
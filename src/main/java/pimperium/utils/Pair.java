@@ -0,0 +1,45 @@
+package pimperium.utils;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Immutable pair of values, used to describe moves without depending on the interface toolkit
+ * @param <K> The type of the first value
+ * @param <V> The type of the second value
+ */
+public class Pair<K, V> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final K key;
+    private final V value;
+
+    public Pair(K key, V value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    public K getKey() {
+        return this.key;
+    }
+
+    public V getValue() {
+        return this.value;
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Pair<?, ?> other)) return false;
+        return Objects.equals(this.key, other.key) && Objects.equals(this.value, other.value);
+    }
+
+    public int hashCode() {
+        return Objects.hash(this.key, this.value);
+    }
+
+    public String toString() {
+        return this.key + "=" + this.value;
+    }
+
+}
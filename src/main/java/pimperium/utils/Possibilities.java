@@ -1,42 +1,47 @@
 package pimperium.utils;
 
 import java.io.Serializable;
-import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Set;
-import java.util.Collections;
+import java.util.random.RandomGenerator;
 
-import javafx.util.Pair;
 
 import pimperium.elements.Hexagon;
 import pimperium.elements.Ship;
+import pimperium.models.Board;
 import pimperium.models.Game;
 import pimperium.players.Player;
 
 /**
- * Singleton class used to generate all the possible moves for multiple actions
+ * Class used to generate all the possible moves for multiple actions, bound to one game
  */
 public class Possibilities implements Serializable{
 
     protected static final long serialVersionUID = 1L;
-    private static Possibilities instance;
-    private static Game game;
+    private final Game game;
+    /**
+     * Moves generated previously, kept until the ships around them change
+     */
+    private transient MoveCache cache;
 
-    private Possibilities(Game game) {
-        Possibilities.game = game;
+    /**
+     * Create the move generator of a game
+     * @param game The game whose moves are generated
+     */
+    public Possibilities(Game game) {
+        this.game = game;
     }
 
     /**
-     * Return the instance of Possibilities according to the Singleton design pattern
-     * @param game The singleton insance of Possibilities
-     * @return
+     * Get the cache of the moves, created again when the board of the game changed
+     * @return The cache of the current board
      */
-    public static Possibilities getInstance(Game game) {
-        if (instance == null) {
-            instance = new Possibilities(game);
+    private MoveCache getCache() {
+        if (this.cache == null || !this.cache.isFor(this.game.getBoard())) {
+            this.cache = new MoveCache(this.game.getBoard(), Game.NB_PLAYERS);
         }
-        return instance;
+        return this.cache;
     }
 
     /**
@@ -44,14 +49,20 @@ public class Possibilities implements Serializable{
      * @return The list of available hexagons
      */
     public List<Hexagon> setupFleet() {
-        List<Hexagon> hexs = new ArrayList<Hexagon>();
-        for (Hexagon[] row : game.getMap()) {
-            for (Hexagon hex : row) {
-                if (hex != null && hex.getOccupant() == null && hex.getSystemLevel() == 1 && !game.findSector(hex).isOccupied()) {
-                    hexs.add(hex);
-                }
+        Board board = this.game.getBoard();
+
+        // Free lvl-1 systems, outside of the sectors where a player already has ships
+        long candidates = board.getLevelMask(1) & ~board.getOccupiedMask();
+        for (int s = 0; s < board.getNumSectors(); s++) {
+            if ((board.getSectorMask(s) & board.getOccupiedMask()) != 0) {
+                candidates &= ~board.getSectorMask(s);
             }
         }
+
+        List<Hexagon> hexs = new ArrayList<Hexagon>();
+        for (long mask = candidates; mask != 0; mask &= mask - 1) {
+            hexs.add(board.getHex(Long.numberOfTrailingZeros(mask)));
+        }
         return hexs;
     }
 
@@ -61,115 +72,251 @@ public class Possibilities implements Serializable{
      * @return The list os possible moves as a list of Ships
      */
     public List<Ship> expand(Player player) {
+        Board board = this.game.getBoard();
         List<Ship> ships = new ArrayList<>();
-        for (Hexagon[] row : game.getMap()) {
-            for (Hexagon hex : row) {
-                if (hex != null && hex.getOccupant() == player && hex.getSystemLevel() >= 1) {
-                    ships.addAll(hex.getShips().stream()
-                            .filter(ship -> !ship.hasExpanded()) // Condition: keep ships that have not expanded yet
-                            .toList());
-                }
+        for (long mask = board.getOccupiedMask(player) & board.getSystemMask(); mask != 0; mask &= mask - 1) {
+            for (Ship ship : board.getHex(Long.numberOfTrailingZeros(mask)).getShips()) {
+                // Condition: keep ships that have not expanded yet
+                if (!ship.hasExpanded()) ships.add(ship);
             }
         }
         return ships;
     }
 
     /**
-     * Generate all the possible Explore moves
+     * Generate the possible Expand moves lazily, one per ship that has not expanded yet
      * @param player The player for which we generate the move
-     * @return The list of possible moves
+     * @return The cursor over the packed moves, valid until the board changes
      */
-    public List<Pair<List<Ship>, List<Hexagon>>> explore(Player player) {
+    public ExpandCursor expandCursor(Player player) {
+        return new ExpandCursor(this.game.getBoard(), player);
+    }
 
-        // The possible moves are all the pairs (Fleet, Set of Destination)
-        List<Pair<List<Ship>, List<Hexagon>>> possibleMoves = new ArrayList<>();
-
-        Set<Hexagon> controlledHexs = new HashSet<Hexagon>();
-        List<Ship> usableShips = player.getShips().stream()
-                .filter(ship -> !ship.hasExplored())
-                .toList();
-        for (Ship ship : usableShips) {
-            controlledHexs.add(ship.getPosition());
+    /**
+     * Count the possible Expand moves without generating them
+     * @param player The player for which we count the moves
+     * @return The number of ships that can expand
+     */
+    public long countExpand(Player player) {
+        Board board = this.game.getBoard();
+        long count = 0;
+        for (long mask = board.getOccupiedMask(player) & board.getSystemMask(); mask != 0; mask &= mask - 1) {
+            for (Ship ship : board.getHex(Long.numberOfTrailingZeros(mask)).getShips()) {
+                if (!ship.hasExpanded()) count++;
+            }
         }
+        return count;
+    }
 
-        // For each controlled hex, we create all the possible moves starting from it
-        for (Hexagon origin : controlledHexs) {
+    /**
+     * Draw one of the possible Expand moves uniformly
+     * @param player The player for which we generate the move
+     * @param random The source of randomness
+     * @return The packed move, or Moves.NO_MOVE if the player can't expand
+     */
+    public long sampleExpand(Player player, RandomGenerator random) {
+        long count = this.countExpand(player);
+        if (count == 0) {
+            return Moves.NO_MOVE;
+        }
+        return this.expandAt(player, random.nextLong(count));
+    }
 
-            // The amont of ships moving may vary from 1 to the size of the whole fleet
-            // For each of these subsets, we generate all the possible moves
-            List<Ship> totalUsableFleet = origin.getShips().stream()
-                    .filter(ship -> !ship.hasExplored())
-                    .toList();
+    /**
+     * Get the k-th Expand move of the cursor, skipping whole hexagons
+     * @param player The player for which we generate the move
+     * @param k The rank of the move, lower than countExpand
+     * @return The packed move
+     */
+    private long expandAt(Player player, long k) {
+        Board board = this.game.getBoard();
+        for (long mask = board.getOccupiedMask(player) & board.getSystemMask(); mask != 0; mask &= mask - 1) {
+            int hex = Long.numberOfTrailingZeros(mask);
+            int usableShips = 0;
+            for (Ship ship : board.getHex(hex).getShips()) {
+                if (!ship.hasExpanded()) usableShips++;
+            }
+            if (k < usableShips) {
+                return Moves.expand(hex, (int) k);
+            }
+            k -= usableShips;
+        }
+        throw new IllegalArgumentException("No Expand move of this rank.");
+    }
 
-            for (int numShips = 1; numShips < totalUsableFleet.size()+1 ; numShips++) {
-                List<Ship> fleet = new ArrayList<>(totalUsableFleet.subList(0, numShips));
+    /**
+     * Generate all the possible Explore moves
+     * @param player The player for which we generate the move
+     * @return The list of possible moves
+     */
+    public List<Pair<List<Ship>, List<Hexagon>>> explore(Player player) {
 
-                // Get all the direct neighbors of the origin
-                Set<Hexagon> distance1Targets = new HashSet<>(origin.getNeighbours());
-                // Remove from the list of possible targets the hexs controlled by another player
-                distance1Targets.removeIf(hex -> hex.getOccupant() != null && hex.getOccupant() != player);
+        MoveBuffer moves = new MoveBuffer();
+        this.explore(player, moves);
 
-                for (Hexagon target1 : distance1Targets) {
-                    // Add the simplest move (the whole fleet moves to the 1-hex away destination)
-                    possibleMoves.add(new Pair<>(new ArrayList<>(fleet), new ArrayList<>(Collections.nCopies(fleet.size(), target1))));
+        // The possible moves are all the pairs (Fleet, Set of Destination)
+        List<Pair<List<Ship>, List<Hexagon>>> possibleMoves = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            possibleMoves.add(Moves.decodeExplore(moves.get(i), this.game.getBoard()));
+        }
+        return possibleMoves;
 
-                    // Add all the distance-2 moves if the hex is not Tri-Prime
-                    if (!target1.isTriPrime()) {
+    }
 
-                        // Add to the fleet the ships located on the hex
-                        //fleet.addAll(target1.getShips());
-                        List<Ship> extendedFleet = new ArrayList<>(fleet);
-                        extendedFleet.addAll(target1.getShips());
+    /**
+     * Generate all the possible Explore moves as packed moves
+     * @param player The player for which we generate the move
+     * @param moves The buffer filled with the possible moves (cleared first)
+     */
+    public void explore(Player player, MoveBuffer moves) {
+        this.getCache().explore(player, moves);
+    }
 
-                        Set<Hexagon> distance2Targets = new HashSet<>(target1.getNeighbours());
+    /**
+     * Generate the possible Explore moves lazily, one at a time
+     * @param player The player for which we generate the move
+     * @return The cursor over the packed moves, valid until the board changes
+     */
+    public ExploreCursor exploreCursor(Player player) {
+        return new ExploreCursor(this.game.getBoard(), player);
+    }
 
-                        // Remove from the list of possible targets the hexs controlled by another player
-                        distance2Targets.removeIf(hex -> hex.getOccupant() != null && hex.getOccupant() != player);
-                        distance2Targets.removeIf(hex -> hex == origin);
+    /**
+     * Count the possible Explore moves without generating them
+     * @param player The player for which we count the moves
+     * @return The number of moves the cursor would yield
+     */
+    public long countExplore(Player player) {
+        Board board = this.game.getBoard();
+        long enemies = board.getEnemyMask(player);
+        long count = 0;
+        for (long origins = board.getOccupiedMask(player); origins != 0; origins &= origins - 1) {
+            count += countExplore(board, enemies, Long.numberOfTrailingZeros(origins));
+        }
+        return count;
+    }
 
-                        // Add all the possible moves for each destination
-                        for (Hexagon target2 : distance2Targets) {
-                            for (int numShipsDropped = 0; numShipsDropped < extendedFleet.size(); numShipsDropped++) {
-                                // The fleet goes to destination, except for numShipsDropped that stop halfway
-                                List<Ship> subFleet2 = new ArrayList<>(extendedFleet.subList(0, extendedFleet.size() - numShipsDropped));
-                                List<Ship> subFleet1 = new ArrayList<>(extendedFleet.subList(extendedFleet.size() - numShipsDropped, extendedFleet.size()));
-                                List<Hexagon> destination2 = new ArrayList<>(Collections.nCopies(subFleet2.size(), target2));
-                                List<Hexagon> destination1 = new ArrayList<>(Collections.nCopies(subFleet1.size(), target1));
+    /**
+     * Count the possible Explore moves leaving a hexagon
+     * @param board The board of the game
+     * @param enemies The mask of the hexagons controlled by the other players
+     * @param origin The index of the hexagon, occupied by the player
+     * @return The number of moves the cursor yields for this origin
+     */
+    private static long countExplore(Board board, long enemies, int origin) {
+        long totalUsableFleet = 0;
+        for (Ship ship : board.getHex(origin).getShips()) {
+            if (!ship.hasExplored()) totalUsableFleet++;
+        }
 
-                                // Create deep copies for the concatenated lists
-                                List<Ship> fullFleet = new ArrayList<>(subFleet1); // Deep copy of subFleet1
-                                fullFleet.addAll(subFleet2); // Add subFleet2
+        long distance1Targets = board.getNeighbourMask(origin) & ~enemies;
+        long count = totalUsableFleet * Long.bitCount(distance1Targets);
+
+        // Destinations reached through an empty hex without dropping any ship, counted once for each fleet size
+        long reached = 0;
+        for (long targets1 = distance1Targets & ~board.getTriPrimeMask(); targets1 != 0; targets1 &= targets1 - 1) {
+            int target1 = Long.numberOfTrailingZeros(targets1);
+            long distance2Targets = board.getTopology().getSecondStepMask(origin, target1) & ~enemies;
+            int target1Ships = board.getHex(target1).getShips().size();
+            // Sum over numShips in [1, totalUsableFleet] of the extended fleet (numShips + ships already on target1)
+            long dropChoices = totalUsableFleet * (totalUsableFleet + 1) / 2 + totalUsableFleet * target1Ships;
+            if (target1Ships == 0) {
+                dropChoices -= totalUsableFleet;
+                reached |= distance2Targets;
+            }
+            count += Long.bitCount(distance2Targets) * dropChoices;
+        }
+        return count + totalUsableFleet * Long.bitCount(reached & ~distance1Targets);
+    }
 
-                                List<Hexagon> fullDestinations = new ArrayList<>(destination1); // Deep copy of destination1
-                                fullDestinations.addAll(destination2); // Add destination2
+    /**
+     * Draw one of the possible Explore moves uniformly, without generating the moves before it
+     * @param player The player for which we generate the move
+     * @param random The source of randomness
+     * @return The packed move, or Moves.NO_MOVE if the player can't explore
+     */
+    public long sampleExplore(Player player, RandomGenerator random) {
+        long count = this.countExplore(player);
+        if (count == 0) {
+            return Moves.NO_MOVE;
+        }
+        return this.exploreAt(player, random.nextLong(count));
+    }
 
-                                possibleMoves.add(new Pair<>( fullFleet, fullDestinations));
+    /**
+     * Get the k-th Explore move of the cursor, skipping whole origins with the terms of countExplore,
+     * then whole fleet sizes and first steps
+     * @param player The player for which we generate the move
+     * @param k The rank of the move, lower than countExplore
+     * @return The packed move
+     */
+    private long exploreAt(Player player, long k) {
+        Board board = this.game.getBoard();
+        long enemies = board.getEnemyMask(player);
+
+        for (long origins = board.getOccupiedMask(player); origins != 0; origins &= origins - 1) {
+            int origin = Long.numberOfTrailingZeros(origins);
+            long originMoves = countExplore(board, enemies, origin);
+            if (k >= originMoves) {
+                k -= originMoves;
+                continue;
+            }
 
-                            }
-                        }
+            int totalUsableFleet = 0;
+            for (Ship ship : board.getHex(origin).getShips()) {
+                if (!ship.hasExplored()) totalUsableFleet++;
+            }
+            long distance1Targets = board.getNeighbourMask(origin) & ~enemies;
+
+            for (int numShips = 1; numShips <= totalUsableFleet; numShips++) {
+
+                // Number of moves of this fleet size: the direct ones, then the distance-2 ones
+                long fleetMoves = Long.bitCount(distance1Targets);
+                long reached = distance1Targets;
+                for (long targets1 = distance1Targets; targets1 != 0; targets1 &= targets1 - 1) {
+                    int target1 = Long.numberOfTrailingZeros(targets1);
+                    long distance2Targets = board.getTopology().getSecondStepMask(origin, target1) & ~enemies;
+                    int target1Ships = board.getHex(target1).getShips().size();
+                    if (target1Ships > 0) {
+                        fleetMoves += Long.bitCount(distance2Targets) * (long) (numShips + target1Ships);
+                    } else {
+                        fleetMoves += Long.bitCount(distance2Targets) * (long) (numShips - 1) + Long.bitCount(distance2Targets & ~reached);
+                        reached |= distance2Targets;
                     }
-
                 }
-
-            }
-
-        }
-
-        // Just for debugging
-        for (Pair<List<Ship>, List<Hexagon>> move : possibleMoves) {
-            if (move.getKey().size() != move.getValue().size()) {
-                System.out.println("Warning !!");
-                for (Ship ship : move.getKey()) {
-                    System.out.println(ship);
+                if (k >= fleetMoves) {
+                    k -= fleetMoves;
+                    continue;
                 }
-                for (Hexagon hex : move.getValue()) {
-                    System.out.println(hex);
+
+                reached = distance1Targets;
+                for (long targets1 = distance1Targets; targets1 != 0; targets1 &= targets1 - 1) {
+                    int target1 = Long.numberOfTrailingZeros(targets1);
+                    if (k == 0) {
+                        return Moves.explore(origin, numShips, target1, Moves.NONE, 0);
+                    }
+                    k--;
+
+                    int extendedFleet = numShips + board.getHex(target1).getShips().size();
+                    boolean isTarget1Empty = extendedFleet == numShips;
+                    long distance2Targets = board.getTopology().getSecondStepMask(origin, target1) & ~enemies;
+                    for (; distance2Targets != 0; distance2Targets &= distance2Targets - 1) {
+                        int target2 = Long.numberOfTrailingZeros(distance2Targets);
+                        // Without dropping any ship, an empty hex is only crossed to a destination not reached yet
+                        int firstDropped = 0;
+                        if (isTarget1Empty) {
+                            if ((reached & Board.bit(target2)) != 0) firstDropped = 1;
+                            reached |= Board.bit(target2);
+                        }
+                        if (k < extendedFleet - firstDropped) {
+                            return Moves.explore(origin, numShips, target1, target2, firstDropped + (int) k);
+                        }
+                        k -= extendedFleet - firstDropped;
+                    }
                 }
             }
         }
-
-        return possibleMoves;
-
+        throw new IllegalArgumentException("No Explore move of this rank.");
     }
 
     /**
@@ -179,90 +326,141 @@ public class Possibilities implements Serializable{
      */
     public List<Pair<Set<Ship>, Hexagon>> exterminate(Player player) {
 
-        List<Pair<Set<Ship>, Hexagon>> possibleMoves = new ArrayList<>();
+        MoveBuffer moves = new MoveBuffer();
+        this.exterminate(player, moves);
 
-        Set<Hexagon> targets = new HashSet<Hexagon>();
-        for (Hexagon[] row : game.getMap()) {
-            for (Hexagon hex : row) {
-                if (hex != null && hex.getSystemLevel() >= 1 && hex.getOccupant() != player) {
-                    targets.add(hex);
-                }
-            }
+        List<Pair<Set<Ship>, Hexagon>> possibleMoves = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            possibleMoves.add(Moves.decodeExterminate(moves.get(i), this.game.getBoard()));
         }
+        return possibleMoves;
 
+    }
 
-        for (Hexagon target : targets) {
-            List<Hexagon> origins = new ArrayList<Hexagon>();
-            // Find all the hexs the player can attack from
-            for (Hexagon hex : target.getNeighbours()) {
-                boolean isOccupant = hex.getOccupant() == player;
-                List<Ship> usableShips = hex.getShips().stream()
-                        .filter(ship -> !ship.hasExterminated())
-                        .toList();
-                boolean hasUsableShips = !usableShips.isEmpty();
-                if (isOccupant && hasUsableShips) {
-                    origins.add(hex);
-                }
-            }
+    /**
+     * Generate all the possible Exterminate moves as packed moves
+     * @param player The player for which we generate the move
+     * @param moves The buffer filled with the possible moves (cleared first)
+     */
+    public void exterminate(Player player, MoveBuffer moves) {
+        this.getCache().exterminate(player, moves);
+    }
 
-            if (origins.isEmpty()) continue;
+    /**
+     * Generate the Exterminate moves that are not dominated, as packed moves
+     * @param player The player for which we generate the move
+     * @param moves The buffer filled with the possible moves (cleared first)
+     * @param dominance The pruning applied to the distributions of ships
+     */
+    public void exterminate(Player player, MoveBuffer moves, Dominance dominance) {
+        this.exterminateCursor(player, dominance).drainTo(moves);
+    }
 
-            // Get the number of ships on each origin hex
-            int[] fleetSizes = new int[origins.size()];
-            for (int i = 0; i < origins.size(); i++) {
-                //fleetSizes[i] = origins.get(i).getShips().size();
-                fleetSizes[i] = (int) origins.get(i).getShips().stream()
-                        .filter(ship -> !ship.hasExterminated())
-                        .count();
-            }
+    /**
+     * Generate the possible Exterminate moves lazily, one at a time
+     * @param player The player for which we generate the move
+     * @return The cursor over the packed moves, valid until the board changes
+     */
+    public ExterminateCursor exterminateCursor(Player player) {
+        return this.exterminateCursor(player, Dominance.ALL);
+    }
 
-            // All the possible distributions of ships from the origin fleets
-            List<int[]> distributions = new ArrayList<>();
-            int numOrigins = origins.size();
-
-            int[] distribution = new int[numOrigins];
-
-            boolean done = false;
-            while (!done) {
-                distributions.add(distribution.clone()); // Add a copy of the current distribution
-                // Increment the distribution vector
-                int i = 0;
-                while (i < numOrigins) {
-                    distribution[i]++;
-                    if (distribution[i] <= fleetSizes[i]) {
-                        break; // Valid increment; exit inner loop
-                    } else {
-                        distribution[i] = 0; // Reset current position
-                        i++; // Carry over to the next position
-                    }
-                }
+    /**
+     * Generate the Exterminate moves that are not dominated lazily, one at a time
+     * @param player The player for which we generate the move
+     * @param dominance The pruning applied to the distributions of ships
+     * @return The cursor over the packed moves, valid until the board changes
+     */
+    public ExterminateCursor exterminateCursor(Player player, Dominance dominance) {
+        return new ExterminateCursor(this.game.getBoard(), player, dominance);
+    }
 
-                if (i == numOrigins) {
-                    done = true; // We've exhausted all combinations
-                }
-            }
+    /**
+     * Count the possible Exterminate moves without generating them
+     * @param player The player for which we count the moves
+     * @return The number of moves the cursor would yield
+     */
+    public long countExterminate(Player player) {
+        Board board = this.game.getBoard();
+        long occupied = board.getOccupiedMask(player);
+        long count = 0;
 
+        for (long targets = board.getSystemMask() & ~occupied; targets != 0; targets &= targets - 1) {
+            count += countExterminate(board, occupied, Long.numberOfTrailingZeros(targets));
+        }
+        return count;
+    }
 
-            // Convert ship distributions to moves
-            for (int[] dist : distributions) {
-                Set<Ship> fleet = new HashSet<>();
-                for (int i = 0; i < dist.length; i++) {
-                    List<Ship> usableShips = origins.get(i).getShips().stream()
-                            .filter(ship -> !ship.hasExterminated())
-                            .toList();
-                    //fleet.addAll(new ArrayList<>(origins.get(i).getShips().subList(0, dist[i])));
-                    fleet.addAll(new ArrayList<>(usableShips.subList(0, dist[i])));
-                }
-                // Make sure the fleet is not empty (possible considering how we generate the distributions)
-                if (!fleet.isEmpty()) {
-                    possibleMoves.add(new Pair<>(new HashSet<>(fleet), target));
-                }
+    /**
+     * Count the possible Exterminate moves attacking a system
+     * @param board The board of the game
+     * @param occupied The mask of the hexagons occupied by the player
+     * @param target The index of the system, not occupied by the player
+     * @return The number of moves the cursor yields for this target
+     */
+    private static long countExterminate(Board board, long occupied, int target) {
+        // Each origin sends from 0 to all its usable ships, the empty distribution excluded
+        long distributions = 1;
+        for (long origins = board.getNeighbourMask(target) & occupied; origins != 0; origins &= origins - 1) {
+            long usableShips = 0;
+            for (Ship ship : board.getHex(Long.numberOfTrailingZeros(origins)).getShips()) {
+                if (!ship.hasExterminated()) usableShips++;
             }
+            distributions *= usableShips + 1;
+        }
+        return distributions - 1;
+    }
 
+    /**
+     * Draw one of the possible Exterminate moves uniformly, without generating the moves before it
+     * @param player The player for which we generate the move
+     * @param random The source of randomness
+     * @return The packed move, or Moves.NO_MOVE if the player can't exterminate
+     */
+    public long sampleExterminate(Player player, RandomGenerator random) {
+        long count = this.countExterminate(player);
+        if (count == 0) {
+            return Moves.NO_MOVE;
         }
+        return this.exterminateAt(player, random.nextLong(count));
+    }
 
-        return possibleMoves;
+    /**
+     * Get the k-th Exterminate move of the cursor, skipping whole targets with the terms of countExterminate.
+     * The distributions of a target are the numbers in mixed radix (usable ships + 1 for each neighbour, the first
+     * one varying fastest), the empty distribution being 0
+     * @param player The player for which we generate the move
+     * @param k The rank of the move, lower than countExterminate
+     * @return The packed move
+     */
+    private long exterminateAt(Player player, long k) {
+        Board board = this.game.getBoard();
+        long occupied = board.getOccupiedMask(player);
+
+        for (long targets = board.getSystemMask() & ~occupied; targets != 0; targets &= targets - 1) {
+            int target = Long.numberOfTrailingZeros(targets);
+            long targetMoves = countExterminate(board, occupied, target);
+            if (k >= targetMoves) {
+                k -= targetMoves;
+                continue;
+            }
 
+            long distribution = k + 1;
+            long move = Moves.exterminate(target);
+            int slot = 0;
+            for (long neighbours = board.getNeighbourMask(target); neighbours != 0; neighbours &= neighbours - 1, slot++) {
+                int neighbour = Long.numberOfTrailingZeros(neighbours);
+                if ((occupied & Board.bit(neighbour)) == 0) continue;
+                int usableShips = 0;
+                for (Ship ship : board.getHex(neighbour).getShips()) {
+                    if (!ship.hasExterminated()) usableShips++;
+                }
+                move = Moves.withCount(move, slot, (int) (distribution % (usableShips + 1)));
+                distribution /= usableShips + 1;
+            }
+            return move;
+        }
+        throw new IllegalArgumentException("No Exterminate move of this rank.");
     }
 
 }
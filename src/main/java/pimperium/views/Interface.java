@@ -38,6 +38,7 @@ import javafx.util.Pair;
 
 import pimperium.controllers.GameController;
 import pimperium.elements.Hexagon;
+import pimperium.models.Game;
 import pimperium.players.Player;
 import pimperium.utils.Colors;
 import pimperium.players.Bot;
@@ -669,7 +670,7 @@ public class Interface {
         topSection.getChildren().clear();
     
         // Round section
-        Text roundTitle = new Text("Round " + Math.min((controller.getGame().getRound() + 1), 9) + "/9");
+        Text roundTitle = new Text("Round " + Math.min((controller.getGame().getRound() + 1), Game.NB_ROUNDS) + "/" + Game.NB_ROUNDS);
         roundTitle.setFill(Color.WHITE); 
         roundTitle.setFont(Font.font("Orbitron", FontWeight.BOLD, 18));
         topSection.getChildren().add(roundTitle);
@@ -104,7 +104,7 @@ public class PlayerNamesView {
             Label botLabel = new Label("Stratégie du bot " + i + " :");
             botLabel.setStyle("-fx-text-fill: white; -fx-font-size: 18px;");
             ComboBox<String> strategyCombo = new ComboBox<>();
-            strategyCombo.getItems().addAll("Offensif", "Défensif", "Aléatoire");
+            strategyCombo.getItems().addAll("Offensif", "Défensif", "MCTS", "Aléatoire");
             strategyCombo.getSelectionModel().select("Aléatoire"); // Set "Aléatoire" as the default selection
             botStrategyCombos.add(strategyCombo);
             fieldsBox.getChildren().addAll(botLabel, strategyCombo);